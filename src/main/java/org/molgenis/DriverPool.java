@@ -0,0 +1,395 @@
+package org.molgenis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.molgenis.selenium.model.Waits;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+
+/**
+ * Pool of warm {@link WebDriver} sessions for a {@link DriverType}. Test classes lease a session instead of starting a
+ * new browser, and return it when they are done. A returned session is reset to the state of a freshly started one:
+ * no cookies, empty local and session storage, a single window of the default size showing about:blank. Sessions that
+ * fail the health check or cannot be reset are quit and replaced by a new session on the next lease.
+ * 
+ * The pool can {@link #prespawn(int)} sessions on a background thread, ahead of demand, so that browser startup
+ * overlaps with other work instead of being on the critical path of a test class.
+ */
+public class DriverPool
+{
+	private static final Logger LOG = LoggerFactory.getLogger(DriverPool.class);
+
+	public static final String BLANK_PAGE = "about:blank";
+	public static final Dimension DEFAULT_SIZE = new Dimension(1920, 1080);
+
+	/**
+	 * How long {@link #close()} waits for a pre-spawned session that is still launching, before it gives up on it.
+	 */
+	private static final long CLOSE_SPAWN_TIMEOUT_SECONDS = 30;
+
+	private final DriverType driverType;
+	private final int size;
+	private final Semaphore permits;
+	private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+	private final ThreadBoundDriver threadBoundDriver = new ThreadBoundDriver(this);
+	private final Queue<Spawn> spawning = new ConcurrentLinkedQueue<>();
+	private final ExecutorService spawner;
+	private volatile int prespawnCount;
+
+	private final AtomicInteger created = new AtomicInteger();
+	private final AtomicInteger recreated = new AtomicInteger();
+	private final AtomicInteger leases = new AtomicInteger();
+	private final AtomicLong leaseNanos = new AtomicLong();
+	private final AtomicLong returnNanos = new AtomicLong();
+	private final AtomicLong savedNanos = new AtomicLong();
+
+	public DriverPool(DriverType driverType, int size)
+	{
+		if (size < 1)
+		{
+			throw new IllegalArgumentException("Pool size must be at least 1, was " + size);
+		}
+		this.driverType = requireNonNull(driverType);
+		this.size = size;
+		this.permits = new Semaphore(size, true);
+		this.spawner = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "driver-spawner-" + driverType);
+			thread.setDaemon(true);
+			return thread;
+		});
+		Runtime.getRuntime().addShutdownHook(new Thread(this::close, "driver-pool-" + driverType));
+	}
+
+	public int getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Returns the driver that gives every thread its own session from this pool.
+	 */
+	public ThreadBoundDriver getThreadBoundDriver()
+	{
+		return threadBoundDriver;
+	}
+
+	/**
+	 * Keeps the given number of sessions, up to the pool size, launched ahead of demand. Starts launching them right
+	 * away.
+	 */
+	public void prespawn(int count)
+	{
+		prespawnCount = Math.min(count, size);
+		topUp();
+	}
+
+	/**
+	 * Leases a healthy session, blocking until one of the {@link #getSize()} sessions is available. Reuses an idle
+	 * session if there is one and starts a new one otherwise. New sessions get the same reset as returned ones, so
+	 * tests cannot tell them apart.
+	 */
+	public WebDriver lease()
+	{
+		Stopwatch sw = Stopwatch.createStarted();
+		permits.acquireUninterruptibly();
+		try
+		{
+			WebDriver driver = pollHealthy();
+			if (driver == null)
+			{
+				driver = pollSpawned();
+			}
+			if (driver == null)
+			{
+				driver = createSession();
+			}
+			leases.incrementAndGet();
+			leaseNanos.addAndGet(sw.elapsed(TimeUnit.NANOSECONDS));
+			LOG.info("Leased {} session in {}.", driverType, sw);
+			topUp();
+			return driver;
+		}
+		catch (RuntimeException ex)
+		{
+			permits.release();
+			throw ex;
+		}
+	}
+
+	/**
+	 * Resets a leased session and returns it to the pool. Sessions that cannot be reset are quit.
+	 */
+	public void release(WebDriver driver)
+	{
+		Stopwatch sw = Stopwatch.createStarted();
+		PooledHttpClientFactory.getInstance().ifPresent(PooledHttpClientFactory::cleanupIdleClients);
+		try
+		{
+			if (reset(driver))
+			{
+				idle.push(driver);
+			}
+			else
+			{
+				LOG.warn("Failed to reset {} session, quitting it.", driverType);
+				quit(driver);
+				recreated.incrementAndGet();
+			}
+		}
+		finally
+		{
+			returnNanos.addAndGet(sw.elapsed(TimeUnit.NANOSECONDS));
+			permits.release();
+			LOG.info("Returned {} session in {}.", driverType, sw);
+		}
+	}
+
+	/**
+	 * Quits a leased session that is broken, instead of returning it. The next lease starts a new session in its place.
+	 */
+	public void discard(WebDriver driver)
+	{
+		try
+		{
+			quit(driver);
+			recreated.incrementAndGet();
+		}
+		finally
+		{
+			permits.release();
+		}
+	}
+
+	/**
+	 * Quits all sessions and logs the pool statistics. It runs in a shutdown hook, so it waits at most
+	 * {@link #CLOSE_SPAWN_TIMEOUT_SECONDS} for each session that is still launching and cancels it after that.
+	 */
+	public void close()
+	{
+		prespawnCount = 0;
+		threadBoundDriver.releaseAll();
+		Spawn spawn;
+		while ((spawn = spawning.poll()) != null)
+		{
+			try
+			{
+				quit(spawn.future.get(CLOSE_SPAWN_TIMEOUT_SECONDS, TimeUnit.SECONDS));
+			}
+			catch (TimeoutException e)
+			{
+				LOG.warn("Pre-spawned {} session did not start within {} s, cancel it.", driverType,
+						CLOSE_SPAWN_TIMEOUT_SECONDS);
+				spawn.future.cancel(true);
+			}
+			catch (ExecutionException e)
+			{
+				LOG.debug("Pre-spawned session did not start.", e);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				spawn.future.cancel(true);
+				LOG.debug("Interrupted while waiting for a pre-spawned session.", e);
+			}
+		}
+		spawner.shutdownNow();
+		WebDriver driver;
+		while ((driver = idle.poll()) != null)
+		{
+			quit(driver);
+		}
+		LOG.info("{}", this);
+	}
+
+	private WebDriver createSession()
+	{
+		WebDriver driver = driverType.getDriver();
+		reset(driver);
+		created.incrementAndGet();
+		return driver;
+	}
+
+	/**
+	 * Starts launching sessions until the number of idle and launching sessions reaches the pre-spawn count, without
+	 * exceeding the pool size.
+	 */
+	private synchronized void topUp()
+	{
+		int leased = size - permits.availablePermits();
+		int ready = idle.size() + spawning.size();
+		while (ready < prespawnCount && leased + ready < size)
+		{
+			Spawn spawn = new Spawn();
+			spawn.future = spawner.submit(spawn);
+			spawning.add(spawn);
+			ready++;
+		}
+	}
+
+	/**
+	 * Takes the oldest pre-spawned session, waiting for it to finish launching if needed.
+	 * 
+	 * @return the session, or null if there is none or it failed to launch
+	 */
+	private WebDriver pollSpawned()
+	{
+		Spawn spawn = spawning.poll();
+		if (spawn == null)
+		{
+			return null;
+		}
+		Stopwatch wait = Stopwatch.createStarted();
+		try
+		{
+			WebDriver driver = spawn.future.get();
+			long saved = Math.max(0, spawn.launchNanos - wait.elapsed(TimeUnit.NANOSECONDS));
+			savedNanos.addAndGet(saved);
+			LOG.info("Pre-spawned {} session took {} ms off the critical path.", driverType,
+					TimeUnit.NANOSECONDS.toMillis(saved));
+			return driver;
+		}
+		catch (ExecutionException e)
+		{
+			LOG.warn("Pre-spawned {} session failed to launch.", driverType, e.getCause());
+			return null;
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a " + driverType + " session", e);
+		}
+	}
+
+	private WebDriver pollHealthy()
+	{
+		WebDriver driver;
+		while ((driver = idle.poll()) != null)
+		{
+			if (isHealthy(driver))
+			{
+				return driver;
+			}
+			LOG.warn("Idle {} session is unhealthy, recreating it.", driverType);
+			quit(driver);
+			recreated.incrementAndGet();
+		}
+		return null;
+	}
+
+	private static boolean isHealthy(WebDriver driver)
+	{
+		try
+		{
+			return !driver.getWindowHandles().isEmpty() && BLANK_PAGE.equals(driver.getCurrentUrl());
+		}
+		catch (WebDriverException ex)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * Brings a session back to the state of a freshly started one and checks that it got there.
+	 *
+	 * @return true if the session is reset, false if it should be discarded
+	 */
+	static boolean reset(WebDriver driver)
+	{
+		try
+		{
+			Set<String> handles = driver.getWindowHandles();
+			String first = handles.iterator().next();
+			for (String handle : handles)
+			{
+				if (!handle.equals(first))
+				{
+					driver.switchTo().window(handle).close();
+				}
+			}
+			driver.switchTo().window(first);
+			// storage is per origin, so it must be cleared before navigating away from the page under test
+			((JavascriptExecutor) driver).executeScript(
+					"try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+			driver.manage().deleteAllCookies();
+			// cookies can only be read for the origin of the current page, so check them before leaving it
+			boolean cookiesCleared = driver.manage().getCookies().isEmpty();
+			driver.get(BLANK_PAGE);
+			driver.manage().timeouts().implicitlyWait(Waits.getImplicitWaitSeconds(), TimeUnit.SECONDS);
+			driver.manage().window().setPosition(new Point(0, 0));
+			driver.manage().window().setSize(DEFAULT_SIZE);
+			return cookiesCleared && BLANK_PAGE.equals(driver.getCurrentUrl())
+					&& DEFAULT_SIZE.equals(driver.manage().window().getSize());
+		}
+		catch (WebDriverException ex)
+		{
+			LOG.debug("Reset failed.", ex);
+			return false;
+		}
+	}
+
+	private static void quit(WebDriver driver)
+	{
+		try
+		{
+			driver.quit();
+		}
+		catch (WebDriverException ex)
+		{
+			LOG.debug("Failed to quit session.", ex);
+		}
+	}
+
+	@Override
+	public String toString()
+	{
+		int n = Math.max(leases.get(), 1);
+		return String.format(
+				"DriverPool[%s, size=%d, created=%d, recreated=%d, leases=%d, avg lease=%d ms, avg return=%d ms, "
+						+ "saved by pre-spawn=%d ms, respawned=%d in %d ms]",
+				driverType, size, created.get(), recreated.get(), leases.get(),
+				TimeUnit.NANOSECONDS.toMillis(leaseNanos.get() / n),
+				TimeUnit.NANOSECONDS.toMillis(returnNanos.get() / n), TimeUnit.NANOSECONDS.toMillis(savedNanos.get()),
+				threadBoundDriver.getRespawnCount(), threadBoundDriver.getRespawnMillis());
+	}
+
+	/**
+	 * A session that is launched in the background.
+	 */
+	private class Spawn implements Callable<WebDriver>
+	{
+		private final Stopwatch stopwatch = Stopwatch.createStarted();
+		private volatile long launchNanos;
+		private Future<WebDriver> future;
+
+		@Override
+		public WebDriver call()
+		{
+			WebDriver driver = createSession();
+			launchNanos = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+			return driver;
+		}
+	}
+}
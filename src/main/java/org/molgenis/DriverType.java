@@ -1,9 +1,14 @@
 package org.molgenis;
 
+import java.util.EnumMap;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
+import org.molgenis.selenium.model.Waits;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.remote.DesiredCapabilities;
 
 public enum DriverType implements DriverSetup
@@ -14,24 +19,130 @@ public enum DriverType implements DriverSetup
 		@Override
 		public DesiredCapabilities getDesiredCapabilities()
 		{
-			return DesiredCapabilities.firefox();
+			return firefoxCapabilities(new FirefoxOptions(), true);
 		}
 
 		@Override
 		public WebDriver getWebDriverInstance(DesiredCapabilities capabilities)
 		{
-			FirefoxDriver driver = new FirefoxDriver(capabilities);
-			driver.manage().timeouts().implicitlyWait(30, TimeUnit.SECONDS);
+			WebDriver driver = PooledHttpClientFactory.getInstance()
+					.map(factory -> factory.createDriver(GeckoDriverService.createDefaultService(), capabilities))
+					.orElseGet(() -> new FirefoxDriver(capabilities));
+			driver.manage().timeouts().implicitlyWait(Waits.getImplicitWaitSeconds(), TimeUnit.SECONDS);
+			return driver;
+		}
+	},
+
+	/**
+	 * Firefox without a visible window. Animations and smooth scrolling are switched off so that the browser spends no
+	 * time painting transitions the tests never look at.
+	 */
+	HEADLESS_FIREFOX
+	{
+		@Override
+		public DesiredCapabilities getDesiredCapabilities()
+		{
+			return firefoxCapabilities(headlessOptions(), true);
+		}
+
+		@Override
+		public WebDriver getWebDriverInstance(DesiredCapabilities capabilities)
+		{
+			return FIREFOX.getWebDriverInstance(capabilities);
+		}
+	},
+
+	/**
+	 * Firefox on one of the Selenium nodes configured in {@link RemoteNodes}, headless and with the same options as
+	 * {@link #HEADLESS_FIREFOX}.
+	 */
+	REMOTE
+	{
+		@Override
+		public DesiredCapabilities getDesiredCapabilities()
+		{
+			return firefoxCapabilities(headlessOptions(), false);
+		}
+
+		@Override
+		public WebDriver getWebDriverInstance(DesiredCapabilities capabilities)
+		{
+			WebDriver driver = RemoteNodes.getInstance().createDriver(capabilities);
+			driver.manage().timeouts().implicitlyWait(Waits.getImplicitWaitSeconds(), TimeUnit.SECONDS);
 			return driver;
 		}
 	};
 
 	public static final DriverType DEFAULT_DRIVERTYPE = FIREFOX;
 
+	private static final Map<DriverType, DriverPool> POOLS = new EnumMap<>(DriverType.class);
+
 	public WebDriver getDriver()
 	{
 		WebDriver driver = getWebDriverInstance(getDesiredCapabilities());
-		driver.manage().timeouts().implicitlyWait(30, TimeUnit.SECONDS);
+		driver.manage().timeouts().implicitlyWait(Waits.getImplicitWaitSeconds(), TimeUnit.SECONDS);
 		return driver;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns whether the browsers of this type run on this machine, rather than on Selenium nodes.
+	 */
+	public boolean isLocal()
+	{
+		return this != REMOTE;
+	}
+
+	/**
+	 * Returns the options of a Firefox without a visible window and without animations and smooth scrolling.
+	 */
+	private static FirefoxOptions headlessOptions()
+	{
+		FirefoxOptions options = new FirefoxOptions();
+		options.addArguments("-headless", String.format("--window-size=%d,%d", DriverPool.DEFAULT_SIZE.getWidth(),
+				DriverPool.DEFAULT_SIZE.getHeight()));
+		options.addPreference("toolkit.cosmeticAnimations.enabled", false);
+		options.addPreference("ui.prefersReducedMotion", 1);
+		options.addPreference("general.smoothScroll", false);
+		options.addPreference("layout.css.scroll-behavior.enabled", false);
+		return options;
+	}
+
+	/**
+	 * Adds the options to Firefox capabilities. Gives a local browser a profile with a copy of the cache of the
+	 * {@link FirefoxProfileTemplate}, and sends the traffic through the {@link TrafficProxy}, if they are configured.
+	 *
+	 * @param local
+	 *            whether the browser runs on this machine and so can read the cache
+	 */
+	private static DesiredCapabilities firefoxCapabilities(FirefoxOptions options, boolean local)
+	{
+		if (local)
+		{
+			FirefoxProfileTemplate.getInstance().ifPresent(template -> options.setProfile(template.newProfile()));
+		}
+		DesiredCapabilities capabilities = DesiredCapabilities.firefox();
+		capabilities.setCapability(FirefoxOptions.FIREFOX_OPTIONS, options);
+		TrafficProxy.getInstance().ifPresent(proxy -> proxy.configure(capabilities));
+		return capabilities;
+	}
+
+	/**
+	 * Returns the suite-wide pool of sessions of this type, creating it with the given size on first use.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the pool exists already with another size
+	 */
+	public DriverPool getPool(int size)
+	{
+		synchronized (POOLS)
+		{
+			DriverPool pool = POOLS.computeIfAbsent(this, type -> new DriverPool(type, size));
+			if (pool.getSize() != size)
+			{
+				throw new IllegalArgumentException("Pool of " + this + " sessions has size " + pool.getSize()
+						+ ", cannot get it with size " + size);
+			}
+			return pool;
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package org.molgenis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+
+/**
+ * Directory holding a Firefox disk cache that is filled with the static assets of MOLGENIS. Every new session gets a
+ * copy of the cache, so it starts with a warm cache and does not download the JavaScript and CSS bundles again, and
+ * sessions never write to the template or to each other's cache. The profiles also get preferences that switch off
+ * updates, telemetry and other background traffic.
+ *
+ * The copy stays outside the profile: Selenium zips the profile and sends it to the driver when a session starts, so a
+ * cache inside it would make every start slower. The browser reads the copy from the local disk, so the template is
+ * only for browsers on this machine. The copies are deleted when the JVM exits.
+ *
+ * Delete the directory to rebuild the cache, for example after upgrading MOLGENIS.
+ */
+public class FirefoxProfileTemplate
+{
+	private static final Logger LOG = LoggerFactory.getLogger(FirefoxProfileTemplate.class);
+
+	public static final String TEMPLATE_PROPERTY = "molgenis.firefox.profile.template";
+
+	private static final String CACHE_DIR = "cache2";
+
+	private static final List<Path> SESSION_CACHES = new ArrayList<>();
+
+	private final File dir;
+
+	public FirefoxProfileTemplate(File dir)
+	{
+		this.dir = requireNonNull(dir);
+	}
+
+	/**
+	 * Returns the template in the directory configured in the system property {@link #TEMPLATE_PROPERTY}, if it is
+	 * configured and built.
+	 */
+	public static Optional<FirefoxProfileTemplate> getInstance()
+	{
+		String path = System.getProperty(TEMPLATE_PROPERTY, "");
+		if (path.isEmpty())
+		{
+			return Optional.empty();
+		}
+		FirefoxProfileTemplate template = new FirefoxProfileTemplate(new File(path));
+		return template.isBuilt() ? Optional.of(template) : Optional.empty();
+	}
+
+	public boolean isBuilt()
+	{
+		return new File(dir, CACHE_DIR).isDirectory();
+	}
+
+	/**
+	 * Creates a profile for a new local session that uses a copy of the cache in the template directory.
+	 */
+	public FirefoxProfile newProfile()
+	{
+		return newProfile(copyCache().toFile());
+	}
+
+	private static FirefoxProfile newProfile(File cacheParent)
+	{
+		FirefoxProfile profile = new FirefoxProfile();
+		setAutomationPreferences(profile);
+		profile.setPreference("browser.cache.disk.parent_directory", cacheParent.getAbsolutePath());
+		return profile;
+	}
+
+	/**
+	 * Copies the cache of the template to a new directory, which is deleted when the JVM exits.
+	 */
+	private Path copyCache()
+	{
+		try
+		{
+			Path target = Files.createTempDirectory("molgenis-firefox-cache");
+			registerForDeletion(target);
+			Path source = dir.toPath();
+			try (Stream<Path> files = Files.walk(source.resolve(CACHE_DIR)))
+			{
+				for (Path file : (Iterable<Path>) files::iterator)
+				{
+					Files.copy(file, target.resolve(source.relativize(file).toString()));
+				}
+			}
+			return target;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Failed to copy the Firefox cache of " + dir, e);
+		}
+	}
+
+	private static void registerForDeletion(Path sessionCache)
+	{
+		synchronized (SESSION_CACHES)
+		{
+			if (SESSION_CACHES.isEmpty())
+			{
+				Runtime.getRuntime().addShutdownHook(
+						new Thread(FirefoxProfileTemplate::deleteSessionCaches, "firefox-cache-cleanup"));
+			}
+			SESSION_CACHES.add(sessionCache);
+		}
+	}
+
+	private static void deleteSessionCaches()
+	{
+		synchronized (SESSION_CACHES)
+		{
+			for (Path sessionCache : SESSION_CACHES)
+			{
+				try (Stream<Path> files = Files.walk(sessionCache))
+				{
+					files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+				}
+				catch (IOException e)
+				{
+					LOG.debug("Failed to delete Firefox cache {}.", sessionCache, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Fills the cache by letting a session with an empty cache visit pages, then visits the same pages with a session
+	 * from the filled template and logs both timings. Also logs how long a session takes to start with a copy of the
+	 * cache next to its profile and with the cache inside its profile.
+	 *
+	 * @param driverType
+	 *            a Firefox {@link DriverType}
+	 * @param visitPages
+	 *            visits the pages whose assets should be cached
+	 */
+	public void build(DriverType driverType, Consumer<WebDriver> visitPages)
+	{
+		LOG.info("Build Firefox profile template in {}...", dir);
+		if (!dir.isDirectory() && !dir.mkdirs())
+		{
+			throw new IllegalStateException("Failed to create profile template directory " + dir);
+		}
+		// the only session that writes to the template itself
+		long cold = visit(driverType, newProfile(dir), visitPages);
+		long warm = visit(driverType, newProfile(), visitPages);
+		LOG.info("Firefox profile template built. Visiting the pages took {} ms cold, {} ms warm.", cold, warm);
+
+		FirefoxProfile withCache = new FirefoxProfile(dir);
+		setAutomationPreferences(withCache);
+		long inProfileStart = startMillis(driverType, withCache);
+		long copyStart = startMillis(driverType, newProfile());
+		LOG.info("Starting a session took {} ms with the cache in its profile, {} ms with a copy next to it.",
+				inProfileStart, copyStart);
+	}
+
+	private static long visit(DriverType driverType, FirefoxProfile profile, Consumer<WebDriver> visitPages)
+	{
+		WebDriver driver = driverType.getWebDriverInstance(withProfile(driverType, profile));
+		try
+		{
+			Stopwatch sw = Stopwatch.createStarted();
+			visitPages.accept(driver);
+			return sw.elapsed(TimeUnit.MILLISECONDS);
+		}
+		finally
+		{
+			driver.quit();
+		}
+	}
+
+	private static long startMillis(DriverType driverType, FirefoxProfile profile)
+	{
+		DesiredCapabilities capabilities = withProfile(driverType, profile);
+		Stopwatch sw = Stopwatch.createStarted();
+		WebDriver driver = driverType.getWebDriverInstance(capabilities);
+		long millis = sw.elapsed(TimeUnit.MILLISECONDS);
+		driver.quit();
+		return millis;
+	}
+
+	private static DesiredCapabilities withProfile(DriverType driverType, FirefoxProfile profile)
+	{
+		DesiredCapabilities capabilities = driverType.getDesiredCapabilities();
+		FirefoxOptions options = (FirefoxOptions) capabilities.getCapability(FirefoxOptions.FIREFOX_OPTIONS);
+		if (options == null)
+		{
+			options = new FirefoxOptions();
+			capabilities.setCapability(FirefoxOptions.FIREFOX_OPTIONS, options);
+		}
+		options.setProfile(profile);
+		return capabilities;
+	}
+
+	private static void setAutomationPreferences(FirefoxProfile profile)
+	{
+		profile.setPreference("app.update.enabled", false);
+		profile.setPreference("app.update.auto", false);
+		profile.setPreference("extensions.update.enabled", false);
+		profile.setPreference("browser.shell.checkDefaultBrowser", false);
+		profile.setPreference("browser.startup.homepage_override.mstone", "ignore");
+		profile.setPreference("browser.safebrowsing.malware.enabled", false);
+		profile.setPreference("browser.safebrowsing.phishing.enabled", false);
+		profile.setPreference("datareporting.healthreport.uploadEnabled", false);
+		profile.setPreference("datareporting.policy.dataSubmissionEnabled", false);
+		profile.setPreference("toolkit.telemetry.enabled", false);
+		profile.setPreference("network.prefetch-next", false);
+		profile.setPreference("browser.cache.disk.enable", true);
+		profile.setPreference("browser.cache.disk.smart_size.enabled", false);
+		profile.setPreference("browser.cache.disk.capacity", 262144);
+	}
+}
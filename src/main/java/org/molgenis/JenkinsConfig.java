@@ -1,5 +1,11 @@
 package org.molgenis;
 
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Properties;
+
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.PropertySource;
@@ -12,10 +18,34 @@ import org.springframework.context.support.PropertySourcesPlaceholderConfigurer;
 @PropertySource(value = "file:${jenkins_propsfile}", name = "jenkins")
 public class JenkinsConfig
 {
+	public static final String PROPSFILE = "jenkins_propsfile";
+
 	@Bean
 	public static PropertySourcesPlaceholderConfigurer propertySourcesPlaceholderConfigurer()
 	{
 		return new PropertySourcesPlaceholderConfigurer();
 	}
 
+	/**
+	 * Reads the property file directly, for code that runs before the Spring context is available.
+	 */
+	public static Properties loadProperties()
+	{
+		String propsFile = System.getProperty(PROPSFILE, System.getenv(PROPSFILE));
+		if (propsFile == null)
+		{
+			throw new IllegalStateException("Set " + PROPSFILE + " to the location of the property file");
+		}
+		Properties properties = new Properties();
+		try (InputStream in = new FileInputStream(propsFile))
+		{
+			properties.load(in);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Failed to read property file " + propsFile, e);
+		}
+		return properties;
+	}
+
 }
\ No newline at end of file
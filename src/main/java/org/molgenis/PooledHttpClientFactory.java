@@ -0,0 +1,217 @@
+package org.molgenis;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.config.SocketConfig;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.http.HttpClient;
+import org.openqa.selenium.remote.internal.ApacheHttpClient;
+import org.openqa.selenium.remote.service.DriverService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link HttpClient.Factory} whose clients share one pool of keep-alive connections, so that the commands a session
+ * sends to its driver reuse connections instead of opening a new one. Every driver service or node is a route of its
+ * own with its own share of connections, and the pool as a whole holds that share for each driver. Counts the commands
+ * and the connections opened.
+ */
+public class PooledHttpClientFactory implements HttpClient.Factory
+{
+	private static final Logger LOG = LoggerFactory.getLogger(PooledHttpClientFactory.class);
+
+	public static final String POOL_SIZE_PROPERTY = "webdriver.http.pool.size";
+
+	/**
+	 * The number of drivers the sessions run on at the same time, 1 by default.
+	 */
+	public static final String DRIVERS_PROPERTY = "webdriver.http.pool.drivers";
+
+	private static final int IDLE_SECONDS = 30;
+	private static final int CONNECT_TIMEOUT_MILLIS = (int) TimeUnit.MINUTES.toMillis(2);
+	private static final int SOCKET_TIMEOUT_MILLIS = (int) TimeUnit.HOURS.toMillis(3);
+
+	private static PooledHttpClientFactory instance;
+
+	private final PoolingHttpClientConnectionManager connectionManager;
+	private final CloseableHttpClient httpClient;
+	private final AtomicInteger commands = new AtomicInteger();
+	private final AtomicInteger connections = new AtomicInteger();
+
+	/**
+	 * @param poolSize
+	 *            the maximum number of open connections per driver
+	 * @param drivers
+	 *            the number of drivers the sessions run on at the same time
+	 */
+	public PooledHttpClientFactory(int poolSize, int drivers)
+	{
+		if (poolSize < 1 || drivers < 1)
+		{
+			throw new IllegalArgumentException(
+					"Pool size and drivers must be at least 1, were " + poolSize + " and " + drivers);
+		}
+		connectionManager = new PoolingHttpClientConnectionManager(RegistryBuilder.<ConnectionSocketFactory> create()
+				.register("http", new CountingSocketFactory()).build());
+		connectionManager.setMaxTotal(poolSize * drivers);
+		connectionManager.setDefaultMaxPerRoute(poolSize);
+		connectionManager.setDefaultSocketConfig(SocketConfig.custom().setTcpNoDelay(true).setSoKeepAlive(true)
+				.setSoTimeout(SOCKET_TIMEOUT_MILLIS).build());
+		httpClient = HttpClientBuilder.create().setConnectionManager(connectionManager)
+				.setDefaultRequestConfig(RequestConfig.custom().setConnectTimeout(CONNECT_TIMEOUT_MILLIS)
+						.setSocketTimeout(SOCKET_TIMEOUT_MILLIS).build())
+				.addInterceptorLast((HttpRequest request, HttpContext context) -> commands.incrementAndGet()).build();
+	}
+
+	/**
+	 * Returns the factory with the pool size configured in the system property {@link #POOL_SIZE_PROPERTY}, if it is
+	 * configured and larger than 0, for the number of drivers in {@link #DRIVERS_PROPERTY}.
+	 */
+	public static synchronized Optional<PooledHttpClientFactory> getInstance()
+	{
+		int poolSize = Integer.parseInt(System.getProperty(POOL_SIZE_PROPERTY, "0"));
+		if (poolSize < 1)
+		{
+			return Optional.empty();
+		}
+		if (instance == null)
+		{
+			instance = new PooledHttpClientFactory(poolSize,
+					Math.max(Integer.parseInt(System.getProperty(DRIVERS_PROPERTY, "1")), 1));
+		}
+		return Optional.of(instance);
+	}
+
+	@Override
+	public HttpClient createClient(URL url)
+	{
+		return new ApacheHttpClient(httpClient, url);
+	}
+
+	/**
+	 * Closes connections that were idle for a while. Newer Selenium versions call this from the interface.
+	 */
+	public void cleanupIdleClients()
+	{
+		connectionManager.closeExpiredConnections();
+		connectionManager.closeIdleConnections(IDLE_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Returns an executor that sends the commands for the server at the URL through this factory's clients.
+	 */
+	public CommandExecutor createExecutor(URL url)
+	{
+		return new HttpCommandExecutor(Collections.emptyMap(), url, this);
+	}
+
+	/**
+	 * Starts a driver service, such as geckodriver, and creates a session on it that sends its commands through this
+	 * factory's clients. The service stops when the session quits.
+	 *
+	 * The session is a {@link RemoteWebDriver}, not a FirefoxDriver: FirefoxDriver creates its own command executor
+	 * for the service, which would bypass the pool. The tests only use the WebDriver, JavascriptExecutor and
+	 * TakesScreenshot interfaces, which both implement.
+	 */
+	public WebDriver createDriver(DriverService service, Capabilities capabilities)
+	{
+		try
+		{
+			service.start();
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Failed to start driver service", e);
+		}
+		try
+		{
+			return new ServiceDriver(service, createExecutor(service.getUrl()), capabilities);
+		}
+		catch (RuntimeException ex)
+		{
+			service.stop();
+			throw ex;
+		}
+	}
+
+	public int getCommandCount()
+	{
+		return commands.get();
+	}
+
+	public int getConnectionCount()
+	{
+		return connections.get();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "PooledHttpClientFactory[commands=" + getCommandCount() + ", connections opened=" + getConnectionCount()
+				+ ", " + connectionManager.getTotalStats() + "]";
+	}
+
+	/**
+	 * Counts the connections the pool opens.
+	 */
+	private class CountingSocketFactory extends PlainConnectionSocketFactory
+	{
+		@Override
+		public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+				InetSocketAddress localAddress, HttpContext context) throws IOException
+		{
+			int count = connections.incrementAndGet();
+			LOG.debug("Open connection {} to {}.", count, host);
+			return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+		}
+	}
+
+	/**
+	 * Session that stops its driver service when it quits.
+	 */
+	private static class ServiceDriver extends RemoteWebDriver
+	{
+		private final DriverService service;
+
+		ServiceDriver(DriverService service, CommandExecutor executor, Capabilities capabilities)
+		{
+			super(executor, capabilities);
+			this.service = service;
+		}
+
+		@Override
+		public void quit()
+		{
+			try
+			{
+				super.quit();
+			}
+			finally
+			{
+				service.stop();
+			}
+		}
+	}
+}
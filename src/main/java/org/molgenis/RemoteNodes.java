@@ -0,0 +1,243 @@
+package org.molgenis;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.Collectors.toMap;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.HttpCommandExecutor;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Spreads {@link RemoteWebDriver} sessions over a list of Selenium nodes, for example several standalone servers on
+ * localhost. Keeps track of the number of open sessions per node. If a node is at capacity or fails to create a
+ * session, the next node is tried.
+ */
+public class RemoteNodes
+{
+	private static final Logger LOG = LoggerFactory.getLogger(RemoteNodes.class);
+
+	public static final String NODES_PROPERTY = "webdriver.remote.nodes";
+	public static final String STRATEGY_PROPERTY = "webdriver.remote.strategy";
+	public static final String CAPACITY_PROPERTY = "webdriver.remote.capacity";
+
+	public static enum Strategy
+	{
+		ROUND_ROBIN, LEAST_LOADED;
+	}
+
+	private static RemoteNodes instance;
+
+	private final List<Node> nodes;
+	private final Strategy strategy;
+	private final int capacity;
+	private final AtomicInteger next = new AtomicInteger();
+
+	/**
+	 * @param urls
+	 *            the hub URLs of the nodes, e.g. http://localhost:4444/wd/hub
+	 * @param strategy
+	 *            how to pick the node for a new session
+	 * @param capacity
+	 *            maximum number of sessions per node, or 0 for no maximum
+	 */
+	public RemoteNodes(List<URL> urls, Strategy strategy, int capacity)
+	{
+		if (urls.isEmpty())
+		{
+			throw new IllegalArgumentException("No remote nodes configured");
+		}
+		this.nodes = urls.stream().map(Node::new).collect(toList());
+		this.strategy = requireNonNull(strategy);
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Returns the nodes configured in the system properties {@link #NODES_PROPERTY} (comma separated URLs),
+	 * {@link #STRATEGY_PROPERTY} and {@link #CAPACITY_PROPERTY}.
+	 */
+	public static synchronized RemoteNodes getInstance()
+	{
+		if (instance == null)
+		{
+			List<URL> urls = Arrays.stream(System.getProperty(NODES_PROPERTY, "").split(",")).map(String::trim)
+					.filter(url -> !url.isEmpty()).map(RemoteNodes::toURL).collect(toList());
+			Strategy strategy = Strategy.valueOf(System.getProperty(STRATEGY_PROPERTY, Strategy.ROUND_ROBIN.name()));
+			int capacity = Integer.parseInt(System.getProperty(CAPACITY_PROPERTY, "0"));
+			instance = new RemoteNodes(urls, strategy, capacity);
+		}
+		return instance;
+	}
+
+	private static URL toURL(String url)
+	{
+		try
+		{
+			return new URL(url);
+		}
+		catch (MalformedURLException e)
+		{
+			throw new IllegalArgumentException("Invalid remote node URL " + url, e);
+		}
+	}
+
+	/**
+	 * Creates a session on the first node, in order of the {@link Strategy}, that has room for it and succeeds.
+	 *
+	 * @throws WebDriverException
+	 *             if none of the nodes could create the session
+	 */
+	public WebDriver createDriver(Capabilities capabilities)
+	{
+		WebDriverException lastFailure = null;
+		for (Node node : candidates())
+		{
+			if (!node.tryAcquire(capacity))
+			{
+				LOG.debug("Node {} is at capacity.", node);
+				continue;
+			}
+			try
+			{
+				LOG.info("Create session on node {}...", node);
+				return new NodeDriver(node, capabilities);
+			}
+			catch (WebDriverException ex)
+			{
+				node.release();
+				LOG.warn("Node {} failed to create a session, trying the next node. {}", node, ex.getMessage());
+				lastFailure = ex;
+			}
+		}
+		throw new WebDriverException("None of the remote nodes could create a session. Sessions per node: "
+				+ getSessionCounts(), lastFailure);
+	}
+
+	/**
+	 * Returns the nodes in the order in which they should be tried for the next session.
+	 */
+	List<Node> candidates()
+	{
+		List<Node> ordered = new ArrayList<>(nodes);
+		switch (strategy)
+		{
+			case ROUND_ROBIN:
+				Collections.rotate(ordered, -Math.floorMod(next.getAndIncrement(), nodes.size()));
+				break;
+			case LEAST_LOADED:
+				ordered.sort(Comparator.comparingInt(Node::getSessionCount));
+				break;
+		}
+		return ordered;
+	}
+
+	/**
+	 * Returns the number of open sessions per node URL.
+	 */
+	public Map<URL, Integer> getSessionCounts()
+	{
+		return nodes.stream().collect(toMap(Node::getUrl, Node::getSessionCount, (a, b) -> a, LinkedHashMap::new));
+	}
+
+	@Override
+	public String toString()
+	{
+		return "RemoteNodes[strategy=" + strategy + ", capacity=" + capacity + ", sessions=" + getSessionCounts()
+				+ "]";
+	}
+
+	static class Node
+	{
+		private final URL url;
+		private final AtomicInteger sessions = new AtomicInteger();
+
+		Node(URL url)
+		{
+			this.url = requireNonNull(url);
+		}
+
+		URL getUrl()
+		{
+			return url;
+		}
+
+		int getSessionCount()
+		{
+			return sessions.get();
+		}
+
+		boolean tryAcquire(int capacity)
+		{
+			int current;
+			do
+			{
+				current = sessions.get();
+				if (capacity > 0 && current >= capacity)
+				{
+					return false;
+				}
+			}
+			while (!sessions.compareAndSet(current, current + 1));
+			return true;
+		}
+
+		void release()
+		{
+			sessions.decrementAndGet();
+		}
+
+		@Override
+		public String toString()
+		{
+			return url.toString();
+		}
+	}
+
+	/**
+	 * {@link RemoteWebDriver} that frees its slot on the node when it quits.
+	 */
+	private static class NodeDriver extends RemoteWebDriver
+	{
+		private final Node node;
+		private final AtomicBoolean released = new AtomicBoolean();
+
+		NodeDriver(Node node, Capabilities capabilities)
+		{
+			super(PooledHttpClientFactory.getInstance().map(factory -> factory.createExecutor(node.getUrl()))
+					.orElseGet(() -> new HttpCommandExecutor(node.getUrl())), capabilities);
+			this.node = node;
+		}
+
+		@Override
+		public void quit()
+		{
+			try
+			{
+				super.quit();
+			}
+			finally
+			{
+				if (released.compareAndSet(false, true))
+				{
+					node.release();
+				}
+			}
+		}
+	}
+}
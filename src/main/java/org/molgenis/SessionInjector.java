@@ -0,0 +1,139 @@
+package org.molgenis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.util.EntityUtils;
+import org.molgenis.selenium.model.Waits;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+/**
+ * Signs browser sessions in to MOLGENIS by putting a session cookie into them, which is much faster than signing in
+ * through the user interface. Every thread signs in over HTTP once and reuses the server session for all browser
+ * sessions it drives. If the server session ends, for example because a test signed out, the thread signs in again.
+ */
+public class SessionInjector
+{
+	private static final Logger LOG = LoggerFactory.getLogger(SessionInjector.class);
+
+	public static final String SESSION_COOKIE = "JSESSIONID";
+
+	private static final By SIGNOUT_BUTTON = By.id("signout-button");
+
+	private final String baseURL;
+	private final String uid;
+	private final String pwd;
+	private final ThreadLocal<org.apache.http.cookie.Cookie> sessions = new ThreadLocal<>();
+	private final AtomicInteger logins = new AtomicInteger();
+	private final AtomicInteger injections = new AtomicInteger();
+
+	public SessionInjector(String baseURL, String uid, String pwd)
+	{
+		this.baseURL = requireNonNull(baseURL);
+		this.uid = requireNonNull(uid);
+		this.pwd = requireNonNull(pwd);
+	}
+
+	/**
+	 * Opens the base URL signed in. Does nothing more if the browser already uses the session of this thread.
+	 */
+	public void signIn(WebDriver driver)
+	{
+		driver.get(baseURL);
+		org.apache.http.cookie.Cookie session = sessions.get();
+		Cookie current = driver.manage().getCookieNamed(SESSION_COOKIE);
+		if (session != null && current != null && session.getValue().equals(current.getValue()))
+		{
+			return;
+		}
+		if (session == null || !inject(driver, session))
+		{
+			session = login();
+			sessions.set(session);
+			if (!inject(driver, session))
+			{
+				throw new IllegalStateException("Browser is not signed in after injecting a new session cookie");
+			}
+		}
+	}
+
+	public int getLoginCount()
+	{
+		return logins.get();
+	}
+
+	public int getInjectionCount()
+	{
+		return injections.get();
+	}
+
+	/**
+	 * Replaces the session cookie of the browser and reloads the page.
+	 *
+	 * @return true if the page shows the user is signed in
+	 */
+	private boolean inject(WebDriver driver, org.apache.http.cookie.Cookie session)
+	{
+		injections.incrementAndGet();
+		driver.manage().deleteCookieNamed(SESSION_COOKIE);
+		driver.manage().addCookie(new Cookie(SESSION_COOKIE, session.getValue(), session.getPath()));
+		driver.get(baseURL);
+		return !Waits.isAbsent(driver, null, SIGNOUT_BUTTON);
+	}
+
+	/**
+	 * Signs in through the REST API, which also authenticates the HTTP session.
+	 */
+	private org.apache.http.cookie.Cookie login()
+	{
+		LOG.info("Sign in {} over HTTP...", uid);
+		logins.incrementAndGet();
+		Map<String, String> credentials = new LinkedHashMap<>();
+		credentials.put("username", uid);
+		credentials.put("password", pwd);
+		HttpPost post = new HttpPost(baseURL + "/api/v1/login");
+		post.setEntity(new StringEntity(new Gson().toJson(credentials), ContentType.APPLICATION_JSON));
+		BasicCookieStore cookieStore = new BasicCookieStore();
+		try (CloseableHttpClient client = HttpClientBuilder.create().setDefaultCookieStore(cookieStore).build();
+				CloseableHttpResponse response = client.execute(post))
+		{
+			EntityUtils.consume(response.getEntity());
+			int status = response.getStatusLine().getStatusCode();
+			if (status != 200)
+			{
+				throw new IllegalStateException("Sign in of " + uid + " failed with status " + status);
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Sign in of " + uid + " failed", e);
+		}
+		return cookieStore.getCookies().stream().filter(cookie -> SESSION_COOKIE.equals(cookie.getName()))
+				.findFirst().orElseThrow(() -> new IllegalStateException("MOLGENIS returned no session cookie"));
+	}
+
+	@Override
+	public String toString()
+	{
+		return "SessionInjector[user=" + uid + ", logins=" + getLoginCount() + ", injections=" + getInjectionCount()
+				+ "]";
+	}
+}
@@ -0,0 +1,253 @@
+package org.molgenis;
+
+import static java.util.Objects.requireNonNull;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.molgenis.selenium.model.Waits;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.interactions.HasInputDevices;
+import org.openqa.selenium.remote.SessionNotFoundException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+
+/**
+ * {@link WebDriver} that routes every call to a session leased from a {@link DriverPool} for the calling thread. The
+ * first call on a thread leases its session, {@link #release()} gives it back. Page models created with
+ * {@link #getDriver()} can therefore be shared between threads, while each thread drives its own browser.
+ * 
+ * If a call finds that the browser of the thread died, the session is discarded and a new one is started and handed to
+ * the respawn handler, for example to sign in again. The call still fails, so only the running test fails and the next
+ * one continues in the new session. Calls on elements do not pass through this driver, so a browser that dies during
+ * one is noticed by {@link #checkSession(Throwable)} when the test fails.
+ *
+ * Before a lookup the implicit wait of the session is shortened to the time left in the budget of the running test,
+ * see {@link Waits#getImplicitWaitMillis()}, and restored after the test.
+ */
+public class ThreadBoundDriver implements InvocationHandler
+{
+	private static final Logger LOG = LoggerFactory.getLogger(ThreadBoundDriver.class);
+
+	private final DriverPool pool;
+	private final Map<Thread, WebDriver> drivers = new ConcurrentHashMap<>();
+	/**
+	 * The implicit wait this driver last set on each session, absent while it is the one of the pool.
+	 */
+	private final Map<WebDriver, Long> implicitWaits = new ConcurrentHashMap<>();
+	private final WebDriver proxy;
+	private volatile Consumer<WebDriver> respawnHandler = driver -> {
+	};
+
+	private final AtomicInteger respawns = new AtomicInteger();
+	private final AtomicLong respawnNanos = new AtomicLong();
+
+	ThreadBoundDriver(DriverPool pool)
+	{
+		this.pool = requireNonNull(pool);
+		this.proxy = (WebDriver) Proxy.newProxyInstance(ThreadBoundDriver.class.getClassLoader(), new Class<?>[]
+		{ WebDriver.class, JavascriptExecutor.class, TakesScreenshot.class, HasInputDevices.class,
+				HasCapabilities.class }, this);
+	}
+
+	/**
+	 * Returns the routing driver. It is the same instance for every thread.
+	 */
+	public WebDriver getDriver()
+	{
+		return proxy;
+	}
+
+	/**
+	 * Sets what to do with a new session that replaces a dead one, before the thread gets to use it.
+	 */
+	public void setRespawnHandler(Consumer<WebDriver> respawnHandler)
+	{
+		this.respawnHandler = requireNonNull(respawnHandler);
+	}
+
+	public int getRespawnCount()
+	{
+		return respawns.get();
+	}
+
+	/**
+	 * Returns the total time spent replacing dead sessions, including the respawn handler.
+	 */
+	public long getRespawnMillis()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(respawnNanos.get());
+	}
+
+	/**
+	 * Returns the session of the calling thread, leasing one if the thread has none.
+	 */
+	public WebDriver current()
+	{
+		Thread thread = Thread.currentThread();
+		WebDriver driver = drivers.get(thread);
+		if (driver == null)
+		{
+			// only the thread itself adds its own key, so there is no race between get and put
+			driver = pool.lease();
+			drivers.put(thread, driver);
+		}
+		return driver;
+	}
+
+	/**
+	 * Returns the session of the calling thread to the pool, if it has one.
+	 */
+	public void release()
+	{
+		WebDriver driver = drivers.remove(Thread.currentThread());
+		if (driver != null)
+		{
+			implicitWaits.remove(driver);
+			pool.release(driver);
+		}
+	}
+
+	/**
+	 * Returns the sessions of all threads to the pool. Only call this when no test is running.
+	 */
+	public void releaseAll()
+	{
+		for (Thread thread : drivers.keySet())
+		{
+			WebDriver driver = drivers.remove(thread);
+			if (driver != null)
+			{
+				implicitWaits.remove(driver);
+				pool.release(driver);
+			}
+		}
+	}
+
+	/**
+	 * Checks the session of the calling thread after a test failed with the given exception. If the failure shows that
+	 * the session was lost, for example during a click on an element, the session is probed through this driver and so
+	 * replaced before the configuration methods after the test use it.
+	 */
+	public void checkSession(Throwable failure)
+	{
+		if (!drivers.containsKey(Thread.currentThread()))
+		{
+			return;
+		}
+		for (Throwable throwable = failure; throwable != null; throwable = throwable.getCause())
+		{
+			if (isSessionLost(throwable))
+			{
+				try
+				{
+					proxy.getWindowHandle();
+				}
+				catch (WebDriverException ex)
+				{
+					LOG.debug("Probed session of thread {}. {}", Thread.currentThread().getName(), ex.getMessage());
+				}
+				return;
+			}
+		}
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable
+	{
+		if (method.getDeclaringClass() == Object.class)
+		{
+			switch (method.getName())
+			{
+				case "equals":
+					return proxy == args[0];
+				case "hashCode":
+					return System.identityHashCode(proxy);
+				default:
+					return "ThreadBoundDriver" + drivers;
+			}
+		}
+		WebDriver driver = current();
+		try
+		{
+			if (method.getName().startsWith("findElement"))
+			{
+				limitImplicitWait(driver);
+			}
+			return method.invoke(driver, args);
+		}
+		catch (InvocationTargetException ex)
+		{
+			Throwable cause = ex.getCause();
+			if (isSessionLost(cause) && !"quit".equals(method.getName()))
+			{
+				respawn(driver, cause);
+			}
+			throw cause;
+		}
+	}
+
+	/**
+	 * Sets the implicit wait of the session to the one for a lookup right now, unless it is set to that already.
+	 */
+	private void limitImplicitWait(WebDriver driver)
+	{
+		long millis = Waits.getImplicitWaitMillis();
+		Long current = implicitWaits.put(driver, millis);
+		long previous = current != null ? current : TimeUnit.SECONDS.toMillis(Waits.getImplicitWaitSeconds());
+		if (millis != previous)
+		{
+			driver.manage().timeouts().implicitlyWait(millis, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	private static boolean isSessionLost(Throwable throwable)
+	{
+		return throwable instanceof UnreachableBrowserException || throwable instanceof SessionNotFoundException
+				|| throwable instanceof NoSuchSessionException;
+	}
+
+	/**
+	 * Replaces the dead session of the calling thread with a new one. Failures are added to the original exception.
+	 */
+	private void respawn(WebDriver dead, Throwable cause)
+	{
+		Stopwatch sw = Stopwatch.createStarted();
+		LOG.warn("Session of thread {} is lost, starting a new one. {}", Thread.currentThread().getName(),
+				cause.getMessage());
+		drivers.remove(Thread.currentThread());
+		implicitWaits.remove(dead);
+		pool.discard(dead);
+		try
+		{
+			respawnHandler.accept(current());
+			respawns.incrementAndGet();
+			LOG.info("Respawned session of thread {} in {}.", Thread.currentThread().getName(), sw);
+		}
+		catch (RuntimeException ex)
+		{
+			LOG.error("Failed to respawn session.", ex);
+			cause.addSuppressed(ex);
+		}
+		finally
+		{
+			respawnNanos.addAndGet(sw.elapsed(TimeUnit.NANOSECONDS));
+		}
+	}
+}
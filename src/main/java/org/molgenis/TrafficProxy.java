@@ -0,0 +1,818 @@
+package org.molgenis;
+
+import static java.nio.charset.StandardCharsets.ISO_8859_1;
+import static java.util.stream.Collectors.toList;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Stopwatch;
+
+/**
+ * HTTP proxy on localhost for the browsers, see {@link #configure(DesiredCapabilities)}. Requests for blocked URLs get
+ * a 404 and requests for stubbed URLs an empty 200, without contacting the server. The proxy can delay every request
+ * and limit the bandwidth of the responses, and it counts the requests and response bytes per page, which is the
+ * referer of the request or, for the page itself, its URL.
+ *
+ * Connections are kept alive like the browser and the server ask, so the proxy adds no connection setup of its own to
+ * the timings: every client connection serves requests one after another and reuses its connection to the server
+ * while the requests go to the same host.
+ *
+ * HTTPS is tunneled, so for HTTPS only the host can be blocked and the traffic is counted under the host.
+ */
+public class TrafficProxy implements Closeable
+{
+	private static final Logger LOG = LoggerFactory.getLogger(TrafficProxy.class);
+
+	public static final String ENABLED_PROPERTY = "molgenis.proxy.enabled";
+	public static final String BLOCK_PROPERTY = "molgenis.proxy.block";
+	public static final String STUB_PROPERTY = "molgenis.proxy.stub";
+	public static final String LATENCY_PROPERTY = "molgenis.proxy.latency";
+	public static final String BANDWIDTH_PROPERTY = "molgenis.proxy.bandwidth";
+
+	private static final List<String> HOP_BY_HOP_HEADERS = Arrays.asList("connection", "proxy-connection",
+			"keep-alive");
+	private static final List<String> BODY_HEADERS = Arrays.asList("content-length", "transfer-encoding");
+
+	private static TrafficProxy instance;
+
+	private final List<Pattern> blocked;
+	private final List<Pattern> stubbed;
+	private final long latencyMillis;
+	private final long bytesPerSecond;
+	private final ServerSocket serverSocket;
+	private final ExecutorService executor;
+	private final Map<String, Traffic> traffic = new ConcurrentHashMap<>();
+
+	/**
+	 * Starts the proxy on a free port.
+	 *
+	 * @param blocked
+	 *            URL patterns to answer with 404
+	 * @param stubbed
+	 *            URL patterns to answer with an empty 200
+	 * @param latencyMillis
+	 *            delay added to every request
+	 * @param bytesPerSecond
+	 *            maximum bandwidth of a response, or 0 for no maximum
+	 */
+	public TrafficProxy(List<Pattern> blocked, List<Pattern> stubbed, long latencyMillis, long bytesPerSecond)
+			throws IOException
+	{
+		this.blocked = new ArrayList<>(blocked);
+		this.stubbed = new ArrayList<>(stubbed);
+		this.latencyMillis = latencyMillis;
+		this.bytesPerSecond = bytesPerSecond;
+		this.serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+		this.executor = Executors.newCachedThreadPool(runnable -> {
+			Thread thread = new Thread(runnable, "traffic-proxy");
+			thread.setDaemon(true);
+			return thread;
+		});
+		executor.execute(this::accept);
+		LOG.info("Started {}", this);
+	}
+
+	/**
+	 * Returns the proxy configured in the system properties, starting it on first use, if
+	 * {@link #ENABLED_PROPERTY} is true. {@link #BLOCK_PROPERTY} and {@link #STUB_PROPERTY} hold comma separated
+	 * regular expressions, {@link #LATENCY_PROPERTY} is in milliseconds and {@link #BANDWIDTH_PROPERTY} in bytes per
+	 * second.
+	 */
+	public static synchronized Optional<TrafficProxy> getInstance()
+	{
+		if (!Boolean.getBoolean(ENABLED_PROPERTY))
+		{
+			return Optional.empty();
+		}
+		if (instance == null)
+		{
+			try
+			{
+				instance = new TrafficProxy(getPatterns(BLOCK_PROPERTY), getPatterns(STUB_PROPERTY),
+						Long.parseLong(System.getProperty(LATENCY_PROPERTY, "0")),
+						Long.parseLong(System.getProperty(BANDWIDTH_PROPERTY, "0")));
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Failed to start traffic proxy", e);
+			}
+			TrafficProxy proxy = instance;
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				proxy.logTraffic();
+				proxy.close();
+			}, "traffic-proxy-shutdown"));
+		}
+		return Optional.of(instance);
+	}
+
+	private static List<Pattern> getPatterns(String property)
+	{
+		return Arrays.stream(System.getProperty(property, "").split(",")).map(String::trim)
+				.filter(regex -> !regex.isEmpty()).map(Pattern::compile).collect(toList());
+	}
+
+	public int getPort()
+	{
+		return serverSocket.getLocalPort();
+	}
+
+	/**
+	 * Lets the browser send all its traffic, including the traffic to localhost, through this proxy.
+	 */
+	public void configure(DesiredCapabilities capabilities)
+	{
+		String address = "localhost:" + getPort();
+		Proxy proxy = new Proxy();
+		proxy.setHttpProxy(address);
+		proxy.setSslProxy(address);
+		capabilities.setCapability(CapabilityType.PROXY, proxy);
+
+		FirefoxOptions options = (FirefoxOptions) capabilities.getCapability(FirefoxOptions.FIREFOX_OPTIONS);
+		if (options == null)
+		{
+			options = new FirefoxOptions();
+			capabilities.setCapability(FirefoxOptions.FIREFOX_OPTIONS, options);
+		}
+		// Firefox bypasses proxies for localhost unless told otherwise
+		options.addPreference("network.proxy.no_proxies_on", "");
+		options.addPreference("network.proxy.allow_hijacking_localhost", true);
+	}
+
+	/**
+	 * Returns a copy of the traffic counted so far, per page.
+	 */
+	public Map<String, Traffic> getTraffic()
+	{
+		Map<String, Traffic> result = new HashMap<>();
+		traffic.forEach((page, pageTraffic) -> result.put(page, pageTraffic.copy()));
+		return result;
+	}
+
+	public void resetTraffic()
+	{
+		traffic.clear();
+	}
+
+	/**
+	 * Logs the traffic per page, the page with the most bytes first.
+	 */
+	public void logTraffic()
+	{
+		traffic.entrySet().stream()
+				.sorted(Comparator.comparingLong((Map.Entry<String, Traffic> entry) -> entry.getValue().getBytes())
+						.reversed())
+				.forEach(entry -> LOG.info("{} {}", entry.getValue(), entry.getKey()));
+	}
+
+	@Override
+	public void close()
+	{
+		try
+		{
+			serverSocket.close();
+		}
+		catch (IOException e)
+		{
+			LOG.debug("Failed to close proxy socket.", e);
+		}
+		executor.shutdownNow();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "TrafficProxy[port=" + getPort() + ", blocked=" + blocked + ", stubbed=" + stubbed + ", latency="
+				+ latencyMillis + " ms, bandwidth=" + (bytesPerSecond > 0 ? bytesPerSecond + " B/s" : "unlimited")
+				+ "]";
+	}
+
+	private void accept()
+	{
+		while (!serverSocket.isClosed())
+		{
+			try
+			{
+				Socket client = serverSocket.accept();
+				executor.execute(() -> handle(client));
+			}
+			catch (IOException e)
+			{
+				if (!serverSocket.isClosed())
+				{
+					LOG.warn("Proxy failed to accept connection.", e);
+				}
+			}
+		}
+	}
+
+	private void handle(Socket client)
+	{
+		try (Socket socket = client; Upstream upstream = new Upstream())
+		{
+			InputStream in = new BufferedInputStream(socket.getInputStream());
+			boolean keepAlive = true;
+			while (keepAlive)
+			{
+				String requestLine = readLine(in);
+				if (requestLine == null || requestLine.isEmpty())
+				{
+					return;
+				}
+				List<String> headers = readHeaders(in);
+				String[] parts = requestLine.split(" ");
+				if (parts.length != 3)
+				{
+					respond(socket.getOutputStream(), 400, "Bad Request", false);
+					return;
+				}
+				if ("CONNECT".equalsIgnoreCase(parts[0]))
+				{
+					tunnel(socket, in, parts[1]);
+					return;
+				}
+				keepAlive = forward(socket, in, upstream, parts[0], URI.create(parts[1]), parts[2], headers);
+			}
+		}
+		catch (IOException | IllegalArgumentException e)
+		{
+			LOG.debug("Proxy connection failed.", e);
+		}
+	}
+
+	/**
+	 * Forwards a plain HTTP request to the server and copies the response back.
+	 *
+	 * @return true if the client connection stays open for the next request
+	 */
+	private boolean forward(Socket client, InputStream in, Upstream upstream, String method, URI uri, String version,
+			List<String> headers) throws IOException
+	{
+		String url = uri.toString();
+		byte[] body = readRequestBody(in, headers);
+		boolean keepAlive = isKeepAlive(version, headers);
+		Traffic pageTraffic = getPageTraffic(headers, url);
+		OutputStream clientOut = client.getOutputStream();
+		if (filter(clientOut, url, pageTraffic, keepAlive))
+		{
+			return keepAlive;
+		}
+		String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+		if (uri.getRawQuery() != null)
+		{
+			path += "?" + uri.getRawQuery();
+		}
+		StringBuilder request = new StringBuilder(method).append(' ').append(path).append(' ').append(version)
+				.append("\r\n");
+		appendHeaders(request, headers, BODY_HEADERS);
+		if (body.length > 0 || headers.stream().anyMatch(header -> BODY_HEADERS.contains(getName(header))))
+		{
+			request.append("Content-Length: ").append(body.length).append("\r\n");
+		}
+		request.append("\r\n");
+
+		ByteArrayOutputStream requestBytes = new ByteArrayOutputStream();
+		requestBytes.write(request.toString().getBytes(ISO_8859_1));
+		requestBytes.write(body);
+		String statusLine = upstream.send(uri.getHost(), uri.getPort() == -1 ? 80 : uri.getPort(),
+				requestBytes.toByteArray());
+		List<String> responseHeaders = readHeaders(upstream.in);
+		int status = getStatus(statusLine);
+		while (status >= 100 && status < 200)
+		{
+			// the whole request body is sent already, so interim responses are of no use to the client
+			statusLine = readLine(upstream.in);
+			responseHeaders = readHeaders(upstream.in);
+			status = getStatus(statusLine);
+		}
+
+		boolean chunked = getHeader(responseHeaders, "transfer-encoding").toLowerCase().contains("chunked");
+		String contentLength = getHeader(responseHeaders, "content-length");
+		boolean noBody = "HEAD".equalsIgnoreCase(method) || status == 204 || status == 304;
+		boolean untilClose = !noBody && !chunked && contentLength.isEmpty();
+		keepAlive &= !untilClose;
+
+		StringBuilder head = new StringBuilder(statusLine).append("\r\n");
+		appendHeaders(head, responseHeaders, Collections.emptyList());
+		head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+		Transfer transfer = new Transfer(clientOut);
+		transfer.write(head.toString().getBytes(ISO_8859_1));
+		if (chunked)
+		{
+			transfer.copyChunked(upstream.in);
+		}
+		else if (untilClose)
+		{
+			transfer.copy(upstream.in, -1);
+		}
+		else if (!noBody)
+		{
+			transfer.copy(upstream.in, Long.parseLong(contentLength.trim()));
+		}
+		pageTraffic.bytes.addAndGet(transfer.total);
+		if (untilClose || !isKeepAlive(statusLine.split(" ")[0], responseHeaders))
+		{
+			upstream.close();
+		}
+		return keepAlive;
+	}
+
+	/**
+	 * Tunnels an HTTPS connection to the server.
+	 */
+	private void tunnel(Socket client, InputStream in, String authority) throws IOException
+	{
+		String url = "https://" + authority + "/";
+		Traffic hostTraffic = traffic.computeIfAbsent(url, key -> new Traffic());
+		if (filter(client.getOutputStream(), url, hostTraffic, false))
+		{
+			return;
+		}
+		int colon = authority.lastIndexOf(':');
+		String host = colon == -1 ? authority : authority.substring(0, colon);
+		int port = colon == -1 ? 443 : Integer.parseInt(authority.substring(colon + 1));
+		try (Socket server = new Socket(host, port))
+		{
+			OutputStream clientOut = client.getOutputStream();
+			clientOut.write("HTTP/1.1 200 Connection established\r\n\r\n".getBytes(ISO_8859_1));
+			clientOut.flush();
+			OutputStream serverOut = server.getOutputStream();
+			executor.execute(() -> pumpQuietly(in, serverOut));
+			hostTraffic.bytes.addAndGet(pump(server.getInputStream(), clientOut, true));
+		}
+	}
+
+	/**
+	 * Counts the request, answers it if its URL is blocked or stubbed and delays it otherwise.
+	 *
+	 * @return true if the request is answered
+	 */
+	private boolean filter(OutputStream clientOut, String url, Traffic pageTraffic, boolean keepAlive)
+			throws IOException
+	{
+		pageTraffic.requests.incrementAndGet();
+		if (matches(blocked, url))
+		{
+			LOG.debug("Blocked {}", url);
+			pageTraffic.blocked.incrementAndGet();
+			respond(clientOut, 404, "Not Found", keepAlive);
+			return true;
+		}
+		if (matches(stubbed, url))
+		{
+			LOG.debug("Stubbed {}", url);
+			pageTraffic.stubbed.incrementAndGet();
+			respond(clientOut, 200, "OK", keepAlive);
+			return true;
+		}
+		if (latencyMillis > 0)
+		{
+			sleep(latencyMillis);
+		}
+		return false;
+	}
+
+	private Traffic getPageTraffic(List<String> headers, String url)
+	{
+		String page = headers.stream().filter(header -> header.regionMatches(true, 0, "Referer:", 0, 8))
+				.map(header -> header.substring(8).trim()).findFirst().orElse(url);
+		return traffic.computeIfAbsent(page, key -> new Traffic());
+	}
+
+	private static boolean matches(List<Pattern> patterns, String url)
+	{
+		return patterns.stream().anyMatch(pattern -> pattern.matcher(url).find());
+	}
+
+	private static void respond(OutputStream out, int status, String reason, boolean keepAlive) throws IOException
+	{
+		out.write(("HTTP/1.1 " + status + " " + reason + "\r\nContent-Length: 0\r\nConnection: "
+				+ (keepAlive ? "keep-alive" : "close") + "\r\n\r\n").getBytes(ISO_8859_1));
+		out.flush();
+	}
+
+	/**
+	 * Returns whether the sender of the headers wants to keep the connection open: by default from HTTP/1.1 on, with
+	 * a keep-alive header before.
+	 */
+	private static boolean isKeepAlive(String version, List<String> headers)
+	{
+		String connection = (getHeader(headers, "connection") + ',' + getHeader(headers, "proxy-connection"))
+				.toLowerCase();
+		if (connection.contains("close"))
+		{
+			return false;
+		}
+		return "HTTP/1.1".equalsIgnoreCase(version) || connection.contains("keep-alive");
+	}
+
+	/**
+	 * Reads the body of a request, which the browser sends with a length or in chunks.
+	 */
+	private static byte[] readRequestBody(InputStream in, List<String> headers) throws IOException
+	{
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		if (getHeader(headers, "transfer-encoding").toLowerCase().contains("chunked"))
+		{
+			long size;
+			while ((size = parseChunkSize(readLine(in))) > 0)
+			{
+				readFully(in, body, size);
+				readLine(in);
+			}
+			readHeaders(in);
+		}
+		else if (!getHeader(headers, "content-length").isEmpty())
+		{
+			readFully(in, body, Long.parseLong(getHeader(headers, "content-length").trim()));
+		}
+		return body.toByteArray();
+	}
+
+	private static void readFully(InputStream in, OutputStream out, long length) throws IOException
+	{
+		byte[] buffer = new byte[8192];
+		for (long left = length; left > 0;)
+		{
+			int read = in.read(buffer, 0, (int) Math.min(buffer.length, left));
+			if (read == -1)
+			{
+				throw new EOFException("Connection closed " + left + " bytes before the end of the body");
+			}
+			out.write(buffer, 0, read);
+			left -= read;
+		}
+	}
+
+	private static long parseChunkSize(String line) throws IOException
+	{
+		if (line == null)
+		{
+			throw new EOFException("Connection closed before the end of the chunks");
+		}
+		int extension = line.indexOf(';');
+		return Long.parseLong((extension == -1 ? line : line.substring(0, extension)).trim(), 16);
+	}
+
+	private static List<String> readHeaders(InputStream in) throws IOException
+	{
+		List<String> headers = new ArrayList<>();
+		String header;
+		while ((header = readLine(in)) != null && !header.isEmpty())
+		{
+			headers.add(header);
+		}
+		return headers;
+	}
+
+	private static void appendHeaders(StringBuilder message, List<String> headers, List<String> skipped)
+	{
+		for (String header : headers)
+		{
+			String name = getName(header);
+			if (!HOP_BY_HOP_HEADERS.contains(name) && !skipped.contains(name))
+			{
+				message.append(header).append("\r\n");
+			}
+		}
+	}
+
+	private static String getName(String header)
+	{
+		return header.substring(0, Math.max(header.indexOf(':'), 0)).trim().toLowerCase();
+	}
+
+	/**
+	 * Returns the value of the first header with the name, or an empty string.
+	 */
+	private static String getHeader(List<String> headers, String name)
+	{
+		return headers.stream().filter(header -> getName(header).equals(name))
+				.map(header -> header.substring(header.indexOf(':') + 1).trim()).findFirst().orElse("");
+	}
+
+	private static int getStatus(String statusLine) throws IOException
+	{
+		String[] parts = statusLine.split(" ");
+		if (parts.length < 2)
+		{
+			throw new IOException("Invalid status line " + statusLine);
+		}
+		return Integer.parseInt(parts[1]);
+	}
+
+	/**
+	 * Copies until the end of the input, at most {@link #bytesPerSecond} if throttled.
+	 *
+	 * @return the number of bytes copied
+	 */
+	private long pump(InputStream in, OutputStream out, boolean throttle) throws IOException
+	{
+		Stopwatch sw = Stopwatch.createStarted();
+		byte[] buffer = new byte[8192];
+		long total = 0;
+		int read;
+		while ((read = in.read(buffer)) != -1)
+		{
+			out.write(buffer, 0, read);
+			out.flush();
+			total += read;
+			if (throttle && bytesPerSecond > 0)
+			{
+				sleep(total * 1000 / bytesPerSecond - sw.elapsed(TimeUnit.MILLISECONDS));
+			}
+		}
+		return total;
+	}
+
+	private void pumpQuietly(InputStream in, OutputStream out)
+	{
+		try
+		{
+			pump(in, out, false);
+		}
+		catch (IOException e)
+		{
+			// one of the sockets closed, which ends the exchange
+		}
+	}
+
+	private static String readLine(InputStream in) throws IOException
+	{
+		ByteArrayOutputStream line = new ByteArrayOutputStream();
+		int b;
+		while ((b = in.read()) != -1 && b != '\n')
+		{
+			if (b != '\r')
+			{
+				line.write(b);
+			}
+		}
+		return b == -1 && line.size() == 0 ? null : new String(line.toByteArray(), ISO_8859_1);
+	}
+
+	private static void sleep(long millis)
+	{
+		if (millis <= 0)
+		{
+			return;
+		}
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes a response to the client, at most {@link #bytesPerSecond} if throttled, and counts the bytes.
+	 */
+	private class Transfer
+	{
+		private final OutputStream out;
+		private final Stopwatch sw = Stopwatch.createStarted();
+		private long total;
+
+		Transfer(OutputStream out)
+		{
+			this.out = out;
+		}
+
+		void write(byte[] bytes) throws IOException
+		{
+			write(bytes, bytes.length);
+		}
+
+		private void write(byte[] buffer, int length) throws IOException
+		{
+			out.write(buffer, 0, length);
+			out.flush();
+			total += length;
+			if (bytesPerSecond > 0)
+			{
+				sleep(total * 1000 / bytesPerSecond - sw.elapsed(TimeUnit.MILLISECONDS));
+			}
+		}
+
+		/**
+		 * Copies the number of bytes, or until the end of the input if it is -1.
+		 */
+		void copy(InputStream in, long length) throws IOException
+		{
+			byte[] buffer = new byte[8192];
+			for (long left = length; length == -1 || left > 0;)
+			{
+				int read = in.read(buffer, 0, (int) (length == -1 ? buffer.length : Math.min(buffer.length, left)));
+				if (read == -1)
+				{
+					if (length == -1)
+					{
+						return;
+					}
+					throw new EOFException("Connection closed " + left + " bytes before the end of the body");
+				}
+				write(buffer, read);
+				left -= read;
+			}
+		}
+
+		/**
+		 * Copies a chunked body as it is, including its trailers.
+		 */
+		void copyChunked(InputStream in) throws IOException
+		{
+			long size;
+			do
+			{
+				String line = readLine(in);
+				size = parseChunkSize(line);
+				write((line + "\r\n").getBytes(ISO_8859_1));
+				if (size > 0)
+				{
+					// the chunk and the line break after it
+					copy(in, size + 2);
+				}
+			}
+			while (size > 0);
+			String trailer;
+			do
+			{
+				trailer = readLine(in);
+				if (trailer == null)
+				{
+					throw new EOFException("Connection closed before the end of the trailers");
+				}
+				write((trailer + "\r\n").getBytes(ISO_8859_1));
+			}
+			while (!trailer.isEmpty());
+		}
+	}
+
+	/**
+	 * Connection of a client connection to the server, kept open for the next request to the same host.
+	 */
+	private static class Upstream implements Closeable
+	{
+		private Socket socket;
+		private String address;
+		private InputStream in;
+		private OutputStream out;
+
+		/**
+		 * Sends a request and returns the status line of the response. If the server closed a reused connection
+		 * without answering, because it was idle too long, sends the request again on a new connection.
+		 */
+		String send(String host, int port, byte[] request) throws IOException
+		{
+			if (connect(host, port))
+			{
+				try
+				{
+					String statusLine = exchange(request);
+					if (statusLine != null)
+					{
+						return statusLine;
+					}
+				}
+				catch (IOException e)
+				{
+					LOG.debug("Reused connection to {} failed, open a new one.", address, e);
+				}
+				close();
+				connect(host, port);
+			}
+			String statusLine = exchange(request);
+			if (statusLine == null)
+			{
+				throw new EOFException("Server closed the connection without a response");
+			}
+			return statusLine;
+		}
+
+		/**
+		 * @return true if the connection to the host was open already
+		 */
+		private boolean connect(String host, int port) throws IOException
+		{
+			String hostAddress = host + ':' + port;
+			if (socket != null && hostAddress.equals(address))
+			{
+				return true;
+			}
+			close();
+			socket = new Socket(host, port);
+			address = hostAddress;
+			in = new BufferedInputStream(socket.getInputStream());
+			out = socket.getOutputStream();
+			return false;
+		}
+
+		private String exchange(byte[] request) throws IOException
+		{
+			out.write(request);
+			out.flush();
+			return readLine(in);
+		}
+
+		@Override
+		public void close()
+		{
+			if (socket != null)
+			{
+				try
+				{
+					socket.close();
+				}
+				catch (IOException e)
+				{
+					LOG.debug("Failed to close server connection.", e);
+				}
+				socket = null;
+				address = null;
+			}
+		}
+	}
+
+	/**
+	 * Requests and response bytes of a page.
+	 */
+	public static class Traffic
+	{
+		private final AtomicInteger requests = new AtomicInteger();
+		private final AtomicInteger blocked = new AtomicInteger();
+		private final AtomicInteger stubbed = new AtomicInteger();
+		private final AtomicLong bytes = new AtomicLong();
+
+		public int getRequests()
+		{
+			return requests.get();
+		}
+
+		public int getBlocked()
+		{
+			return blocked.get();
+		}
+
+		public int getStubbed()
+		{
+			return stubbed.get();
+		}
+
+		public long getBytes()
+		{
+			return bytes.get();
+		}
+
+		private Traffic copy()
+		{
+			Traffic copy = new Traffic();
+			copy.requests.set(getRequests());
+			copy.blocked.set(getBlocked());
+			copy.stubbed.set(getStubbed());
+			copy.bytes.set(getBytes());
+			return copy;
+		}
+
+		@Override
+		public String toString()
+		{
+			return String.format("%d requests (%d blocked, %d stubbed), %d bytes", getRequests(), getBlocked(),
+					getStubbed(), getBytes());
+		}
+	}
+}
@@ -0,0 +1,305 @@
+package org.molgenis.rest;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.molgenis.data.rest.client.MolgenisClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.base.Stopwatch;
+import com.google.gson.Gson;
+
+/**
+ * Deletes entities, or their rows, in the order their references allow. Reads the metadata of the entities over REST,
+ * and deletes an entity only after the entities that reference it. Entities that do not depend on each other are
+ * deleted at the same time. Deletes that fail are retried once at the end, for references from entities that were not
+ * part of the request but were deleted meanwhile.
+ */
+public class EntityTeardown
+{
+	private static final Logger LOG = LoggerFactory.getLogger(EntityTeardown.class);
+
+	private static final int MAX_CONCURRENT_DELETES = 4;
+
+	private final String apiV2URL;
+	private final MolgenisClient client;
+	private final TokenManager tokenManager;
+	private final String uid;
+	private final String pwd;
+	private final RestTemplate template = new RestTemplate();
+	private final Gson gson = new Gson();
+
+	public EntityTeardown(String baseURL, MolgenisClient client, TokenManager tokenManager, String uid, String pwd)
+	{
+		this.apiV2URL = requireNonNull(baseURL) + "/api/v2/";
+		this.client = requireNonNull(client);
+		this.tokenManager = requireNonNull(tokenManager);
+		this.uid = requireNonNull(uid);
+		this.pwd = requireNonNull(pwd);
+	}
+
+	/**
+	 * Deletes the entities with their metadata.
+	 */
+	public Report deleteEntities(Collection<String> entityNames)
+	{
+		return delete(entityNames, (token, name) -> client.deleteMetadata(token, name));
+	}
+
+	/**
+	 * Deletes all rows of the entities and keeps their metadata.
+	 */
+	public Report deleteData(Collection<String> entityNames)
+	{
+		return delete(entityNames, (token, name) -> client.deleteData(token, name));
+	}
+
+	private Report delete(Collection<String> entityNames, BiConsumer<String, String> deletion)
+	{
+		Report report = new Report();
+		if (entityNames.isEmpty())
+		{
+			return report;
+		}
+		ExecutorService executor = Executors
+				.newFixedThreadPool(Math.min(entityNames.size(), MAX_CONCURRENT_DELETES));
+		try
+		{
+			Map<String, Set<String>> references = getReferences(new LinkedHashSet<>(entityNames), report, executor);
+			List<String> failed = new ArrayList<>();
+			while (!references.isEmpty())
+			{
+				List<String> layer = getUnreferenced(references);
+				if (layer.isEmpty())
+				{
+					// a reference cycle, the server decides
+					layer = new ArrayList<>(references.keySet());
+				}
+				references.keySet().removeAll(layer);
+				runAll(layer, name -> {
+					if (!tryDelete(name, deletion, report, false))
+					{
+						synchronized (failed)
+						{
+							failed.add(name);
+						}
+					}
+				}, executor);
+			}
+			runAll(failed, name -> tryDelete(name, deletion, report, true), executor);
+		}
+		finally
+		{
+			executor.shutdownNow();
+			report.stop();
+		}
+		LOG.info("{}", report);
+		return report;
+	}
+
+	/**
+	 * Reads the metadata of the entities and maps each present entity to the other entities of the request it
+	 * references.
+	 */
+	private Map<String, Set<String>> getReferences(Set<String> entityNames, Report report, ExecutorService executor)
+	{
+		Map<String, Set<String>> references = Collections.synchronizedMap(new LinkedHashMap<>());
+		runAll(entityNames, name -> {
+			Set<String> refEntities = new HashSet<>();
+			try
+			{
+				Map<String, Object> meta = getMeta(name);
+				if (meta == null)
+				{
+					report.add(name, Outcome.ABSENT, 0, null);
+					return;
+				}
+				collectRefEntities(meta.get("attributes"), refEntities);
+			}
+			catch (RuntimeException ex)
+			{
+				LOG.info("Failed to read the metadata of {}, delete it without ordering. {}", name, ex.getMessage());
+			}
+			refEntities.retainAll(entityNames);
+			refEntities.remove(name);
+			references.put(name, refEntities);
+		}, executor);
+		// keep the order of the request
+		Map<String, Set<String>> ordered = new LinkedHashMap<>();
+		entityNames.stream().filter(references::containsKey).forEach(name -> ordered.put(name, references.get(name)));
+		return ordered;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static void collectRefEntities(Object attributes, Set<String> refEntities)
+	{
+		if (!(attributes instanceof List))
+		{
+			return;
+		}
+		for (Object attribute : (List<Object>) attributes)
+		{
+			Map<String, Object> attributeMeta = (Map<String, Object>) attribute;
+			Object refEntity = attributeMeta.get("refEntity");
+			if (refEntity instanceof Map && ((Map<String, Object>) refEntity).get("name") != null)
+			{
+				refEntities.add(((Map<String, Object>) refEntity).get("name").toString());
+			}
+			// compound attributes
+			collectRefEntities(attributeMeta.get("attributes"), refEntities);
+		}
+	}
+
+	/**
+	 * Returns the entities that no other remaining entity references.
+	 */
+	private static List<String> getUnreferenced(Map<String, Set<String>> references)
+	{
+		Set<String> referenced = new HashSet<>();
+		references.values().forEach(referenced::addAll);
+		return references.keySet().stream().filter(name -> !referenced.contains(name)).collect(toList());
+	}
+
+	private boolean tryDelete(String name, BiConsumer<String, String> deletion, Report report, boolean retry)
+	{
+		Stopwatch sw = Stopwatch.createStarted();
+		try
+		{
+			tokenManager.run(uid, pwd, token -> deletion.accept(token, name));
+			report.add(name, Outcome.DELETED, sw.elapsed(TimeUnit.MILLISECONDS), null);
+			return true;
+		}
+		catch (RuntimeException ex)
+		{
+			if (retry)
+			{
+				report.add(name, Outcome.FAILED, sw.elapsed(TimeUnit.MILLISECONDS), ex.getMessage());
+			}
+			else
+			{
+				LOG.debug("Delete {} failed, retry at the end. {}", name, ex.getMessage());
+			}
+			return false;
+		}
+	}
+
+	/**
+	 * Returns the v2 metadata of the entity, or null if it does not exist.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> getMeta(String name)
+	{
+		return tokenManager.call(uid, pwd, token -> {
+			HttpHeaders headers = new HttpHeaders();
+			headers.set("x-molgenis-token", token);
+			try
+			{
+				String json = template.exchange(apiV2URL + name + "?num=1", HttpMethod.GET,
+						new HttpEntity<>(headers), String.class).getBody();
+				return (Map<String, Object>) gson.fromJson(json, Map.class).get("meta");
+			}
+			catch (HttpClientErrorException ex)
+			{
+				if (ex.getStatusCode() == HttpStatus.NOT_FOUND)
+				{
+					return null;
+				}
+				throw ex;
+			}
+		});
+	}
+
+	private static void runAll(Collection<String> names, Consumer<String> action, ExecutorService executor)
+	{
+		CompletableFuture.allOf(names.stream().map(name -> CompletableFuture.runAsync(() -> action.accept(name),
+				executor)).toArray(CompletableFuture[]::new)).join();
+	}
+
+	public enum Outcome
+	{
+		DELETED, ABSENT, FAILED
+	}
+
+	/**
+	 * What a teardown removed, what was not there and what could not be deleted, with the time it took.
+	 */
+	public static class Report
+	{
+		private final Stopwatch stopwatch = Stopwatch.createStarted();
+		private final Map<String, Outcome> outcomes = new LinkedHashMap<>();
+		private final Map<String, Long> millis = new LinkedHashMap<>();
+		private final Map<String, String> errors = new LinkedHashMap<>();
+
+		synchronized void add(String name, Outcome outcome, long elapsedMillis, String error)
+		{
+			outcomes.put(name, outcome);
+			millis.put(name, elapsedMillis);
+			if (error != null)
+			{
+				errors.put(name, error);
+			}
+		}
+
+		void stop()
+		{
+			if (stopwatch.isRunning())
+			{
+				stopwatch.stop();
+			}
+		}
+
+		public synchronized List<String> get(Outcome outcome)
+		{
+			return outcomes.entrySet().stream().filter(entry -> entry.getValue() == outcome).map(Map.Entry::getKey)
+					.collect(toList());
+		}
+
+		public synchronized Map<String, String> getErrors()
+		{
+			return new LinkedHashMap<>(errors);
+		}
+
+		public long getElapsedMillis()
+		{
+			return stopwatch.elapsed(TimeUnit.MILLISECONDS);
+		}
+
+		public boolean isComplete()
+		{
+			return get(Outcome.FAILED).isEmpty();
+		}
+
+		@Override
+		public synchronized String toString()
+		{
+			String deleted = get(Outcome.DELETED).stream().map(name -> name + " (" + millis.get(name) + " ms)")
+					.collect(joining(", "));
+			return "Teardown took " + getElapsedMillis() + " ms. Deleted [" + deleted + "], absent "
+					+ get(Outcome.ABSENT) + (isComplete() ? "" : ", failed " + errors);
+		}
+	}
+}
@@ -0,0 +1,285 @@
+package org.molgenis.rest;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.gson.Gson;
+
+/**
+ * Remembers which fixture files the server holds. After importing a set of files, {@link #record} stores the hash of
+ * the files and the row counts of their entities in the marker entity {@value #MARKER_ENTITY}. {@link #isCurrent}
+ * tells whether the files can be skipped: their hash is unchanged and the entities still have the same number of rows.
+ * Changed values in existing rows go unnoticed, so tests that edit fixture data must delete it when they finish.
+ */
+public class FixtureCache
+{
+	private static final Logger LOG = LoggerFactory.getLogger(FixtureCache.class);
+
+	public static final String MARKER_ENTITY = "SeleniumFixture";
+
+	private static final String ENTITIES_CSV = "name,description\n" + MARKER_ENTITY
+			+ ",Fixture files imported by the Selenium tests\n";
+	private static final String ATTRIBUTES_CSV = "name,entity,dataType,idAttribute,nillable\n" + "id," + MARKER_ENTITY
+			+ ",string,TRUE,FALSE\n" + "files," + MARKER_ENTITY + ",text,FALSE,TRUE\n" + "hash," + MARKER_ENTITY
+			+ ",string,FALSE,FALSE\n" + "rowCounts," + MARKER_ENTITY + ",text,FALSE,TRUE\n" + "importMillis,"
+			+ MARKER_ENTITY + ",long,FALSE,TRUE\n";
+
+	private final String apiURL;
+	private final TokenManager tokenManager;
+	private final FixtureImporter importer;
+	private final String uid;
+	private final String pwd;
+	private final RestTemplate template = new RestTemplate();
+	private final Gson gson = new Gson();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+	private final AtomicLong savedMillis = new AtomicLong();
+	private boolean markerEntityExists;
+
+	public FixtureCache(String baseURL, TokenManager tokenManager, FixtureImporter importer, String uid, String pwd)
+	{
+		this.apiURL = requireNonNull(baseURL) + "/api/v1/";
+		this.tokenManager = requireNonNull(tokenManager);
+		this.importer = requireNonNull(importer);
+		this.uid = requireNonNull(uid);
+		this.pwd = requireNonNull(pwd);
+	}
+
+	/**
+	 * Tells whether the server holds the data of the last import of the files, so that it need not be imported again.
+	 *
+	 * @param entityNames
+	 *            the entities the files contain
+	 */
+	public boolean isCurrent(Collection<File> files, Collection<String> entityNames)
+	{
+		String key = getKey(files);
+		Map<String, Object> marker = getMarker(key);
+		String reason;
+		if (marker == null)
+		{
+			reason = "not imported yet";
+		}
+		else if (!hash(files).equals(marker.get("hash")))
+		{
+			reason = "files changed";
+		}
+		else if (!getRowCounts(entityNames).equals(marker.get("rowCounts")))
+		{
+			reason = "rows changed";
+		}
+		else
+		{
+			long millis = marker.get("importMillis") == null ? 0 : ((Number) marker.get("importMillis")).longValue();
+			hits.incrementAndGet();
+			savedMillis.addAndGet(millis);
+			LOG.info("Fixture cache hit for {}, saved {} ms.", key, millis);
+			return true;
+		}
+		misses.incrementAndGet();
+		LOG.info("Fixture cache miss for {}: {}.", key, reason);
+		return false;
+	}
+
+	/**
+	 * Stores the hash of the files and the row counts of their entities, right after importing them.
+	 *
+	 * @param importMillis
+	 *            how long deleting the old data and importing the files took, which a later cache hit saves
+	 */
+	public void record(Collection<File> files, Collection<String> entityNames, long importMillis)
+	{
+		String key = getKey(files);
+		Map<String, Object> marker = new LinkedHashMap<>();
+		marker.put("id", getId(key));
+		marker.put("files", key);
+		marker.put("hash", hash(files));
+		marker.put("rowCounts", getRowCounts(entityNames));
+		marker.put("importMillis", importMillis);
+		ensureMarkerEntity();
+		tokenManager.run(uid, pwd, token -> {
+			deleteQuietly(token, MARKER_ENTITY + '/' + getId(key));
+			template.exchange(apiURL + MARKER_ENTITY, HttpMethod.POST,
+					new HttpEntity<>(gson.toJson(marker), headers(token)), String.class);
+		});
+		LOG.info("Recorded fixture {}: {}.", key, marker.get("rowCounts"));
+	}
+
+	public int getHitCount()
+	{
+		return hits.get();
+	}
+
+	public int getMissCount()
+	{
+		return misses.get();
+	}
+
+	public long getSavedMillis()
+	{
+		return savedMillis.get();
+	}
+
+	/**
+	 * Imports the marker entity the first time a marker is recorded, unless the server has it already.
+	 */
+	private synchronized void ensureMarkerEntity()
+	{
+		if (markerEntityExists || get(MARKER_ENTITY + "/meta") != null)
+		{
+			markerEntityExists = true;
+			return;
+		}
+		LOG.info("Create marker entity {}...", MARKER_ENTITY);
+		try
+		{
+			Path emx = Files.createTempFile(MARKER_ENTITY, ".zip");
+			try
+			{
+				try (OutputStream out = Files.newOutputStream(emx); ZipOutputStream zip = new ZipOutputStream(out))
+				{
+					zip.putNextEntry(new ZipEntry("entities.csv"));
+					zip.write(ENTITIES_CSV.getBytes(UTF_8));
+					zip.putNextEntry(new ZipEntry("attributes.csv"));
+					zip.write(ATTRIBUTES_CSV.getBytes(UTF_8));
+				}
+				importer.importFile(emx.toFile());
+			}
+			finally
+			{
+				Files.delete(emx);
+			}
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Failed to create marker entity " + MARKER_ENTITY, e);
+		}
+		markerEntityExists = true;
+	}
+
+	private Map<String, Object> getMarker(String key)
+	{
+		return get(MARKER_ENTITY + '/' + getId(key));
+	}
+
+	/**
+	 * Returns the row counts as name=count pairs in the order of the entity names, or a pair with count -1 for each
+	 * entity that does not exist.
+	 */
+	private String getRowCounts(Collection<String> entityNames)
+	{
+		return entityNames.stream().map(name -> {
+			Map<String, Object> page = get(name + "?num=1");
+			return name + '=' + (page == null ? -1 : ((Number) page.get("total")).longValue());
+		}).collect(joining(","));
+	}
+
+	/**
+	 * GETs a resource of the REST API, or null if it does not exist.
+	 */
+	@SuppressWarnings("unchecked")
+	private Map<String, Object> get(String path)
+	{
+		return tokenManager.call(uid, pwd, token -> {
+			try
+			{
+				String json = template.exchange(apiURL + path, HttpMethod.GET, new HttpEntity<>(headers(token)),
+						String.class).getBody();
+				return gson.fromJson(json, Map.class);
+			}
+			catch (HttpClientErrorException ex)
+			{
+				if (ex.getStatusCode() == HttpStatus.NOT_FOUND)
+				{
+					return null;
+				}
+				throw ex;
+			}
+		});
+	}
+
+	private void deleteQuietly(String token, String path)
+	{
+		try
+		{
+			template.exchange(apiURL + path, HttpMethod.DELETE, new HttpEntity<>(headers(token)), String.class);
+		}
+		catch (HttpClientErrorException ex)
+		{
+			if (ex.getStatusCode() != HttpStatus.NOT_FOUND)
+			{
+				throw ex;
+			}
+		}
+	}
+
+	private static HttpHeaders headers(String token)
+	{
+		HttpHeaders headers = new HttpHeaders();
+		headers.set("x-molgenis-token", token);
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return headers;
+	}
+
+	private static String getKey(Collection<File> files)
+	{
+		return files.stream().map(File::getName).collect(joining(","));
+	}
+
+	private static String getId(String key)
+	{
+		return Hashing.sha256().hashString(key, UTF_8).toString().substring(0, 16);
+	}
+
+	private static String hash(Collection<File> files)
+	{
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (File file : files)
+		{
+			try
+			{
+				hasher.putString(file.getName(), UTF_8).putBytes(Files.readAllBytes(file.toPath()));
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException("Failed to read fixture " + file, e);
+			}
+		}
+		return hasher.hash().toString();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "FixtureCache[hits=" + getHitCount() + ", misses=" + getMissCount() + ", saved="
+				+ TimeUnit.MILLISECONDS.toSeconds(getSavedMillis()) + " s]";
+	}
+}
@@ -0,0 +1,217 @@
+package org.molgenis.rest;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.molgenis.data.rest.client.MolgenisClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import com.google.common.base.Stopwatch;
+
+/**
+ * Imports fixture files through the endpoint behind the importer wizard, instead of clicking through the wizard, and
+ * follows the ImportRun of each file until it is done. Files that do not depend on each other can be imported at the
+ * same time with {@link #importFiles(Collection)}, except files that import into the same entities.
+ */
+public class FixtureImporter
+{
+	private static final Logger LOG = LoggerFactory.getLogger(FixtureImporter.class);
+
+	private static final Pattern IMPORT_RUN_URL = Pattern.compile("\"?/api/v2/ImportRun/([^\"]+)\"?");
+	private static final long POLL_MILLIS = 200;
+	private static final long TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+	private static final int MAX_CONCURRENT_IMPORTS = 4;
+
+	private final String importURL;
+	private final MolgenisClient client;
+	private final TokenManager tokenManager;
+	private final String uid;
+	private final String pwd;
+	private final RestTemplate template;
+
+	/**
+	 * @param template
+	 *            sends the files; it must be able to write multipart requests
+	 */
+	public FixtureImporter(String baseURL, RestTemplate template, MolgenisClient client, TokenManager tokenManager,
+			String uid, String pwd)
+	{
+		this.importURL = requireNonNull(baseURL) + "/plugin/importwizard/importFile";
+		this.template = requireNonNull(template);
+		this.client = requireNonNull(client);
+		this.tokenManager = requireNonNull(tokenManager);
+		this.uid = requireNonNull(uid);
+		this.pwd = requireNonNull(pwd);
+	}
+
+	/**
+	 * Imports a file with action ADD into the base package.
+	 *
+	 * @return the finished ImportRun
+	 */
+	public Map<String, Object> importFile(File file)
+	{
+		return importFile(file, null);
+	}
+
+	/**
+	 * Imports a file with action ADD into the base package.
+	 *
+	 * @param entityName
+	 *            name of the entity a VCF file is imported into, or null to derive it from the file name
+	 * @return the finished ImportRun
+	 */
+	public Map<String, Object> importFile(File file, String entityName)
+	{
+		LOG.info("Import {} over REST...", file.getName());
+		Stopwatch sw = Stopwatch.createStarted();
+		MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+		parts.add("file", new FileSystemResource(file));
+		parts.add("action", "add");
+		if (entityName != null)
+		{
+			parts.add("entityName", entityName);
+		}
+		String response = tokenManager.call(uid, pwd, token -> {
+			HttpHeaders headers = new HttpHeaders();
+			headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+			headers.set("x-molgenis-token", token);
+			return template.exchange(importURL, HttpMethod.POST, new HttpEntity<>(parts, headers), String.class)
+					.getBody();
+		});
+		Matcher matcher = IMPORT_RUN_URL.matcher(response.trim());
+		if (!matcher.matches())
+		{
+			throw new IllegalStateException("Unexpected response to the import of " + file.getName() + ": " + response);
+		}
+		Map<String, Object> importRun = waitForImportRun(matcher.group(1));
+		if (!"FINISHED".equals(importRun.get("status")))
+		{
+			throw new IllegalStateException("Import of " + file.getName() + " ended with status "
+					+ importRun.get("status") + ": " + importRun.get("message"));
+		}
+		LOG.info("Imported {} in {}: {}", file.getName(), sw, importRun.get("importedEntities"));
+		return importRun;
+	}
+
+	/**
+	 * Imports files at the same time. The files must not depend on each other. Files that import into the same
+	 * entities, like ontologies that all fill the Ontology tables, are imported one after another. Waits until all
+	 * imports are done, also if one of them fails.
+	 */
+	public void importFiles(Collection<File> files)
+	{
+		Collection<List<File>> groups = files.stream()
+				.collect(groupingBy(FixtureImporter::getTarget, LinkedHashMap::new, toList())).values();
+		if (groups.size() < 2)
+		{
+			files.forEach(this::importFile);
+			return;
+		}
+		Stopwatch sw = Stopwatch.createStarted();
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(groups.size(), MAX_CONCURRENT_IMPORTS));
+		try
+		{
+			List<Future<?>> imports = groups.stream()
+					.map(group -> executor.submit(() -> group.forEach(this::importFile))).collect(toList());
+			RuntimeException failure = null;
+			for (Future<?> future : imports)
+			{
+				try
+				{
+					future.get();
+				}
+				catch (ExecutionException e)
+				{
+					RuntimeException ex = e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause()
+							: new IllegalStateException(e.getCause());
+					if (failure == null)
+					{
+						failure = ex;
+					}
+					else
+					{
+						failure.addSuppressed(ex);
+					}
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while importing fixtures", e);
+				}
+			}
+			if (failure != null)
+			{
+				throw failure;
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+		LOG.info("Imported {} files in {}.", files.size(), sw);
+	}
+
+	/**
+	 * Returns what the file imports into. Ontology files all add rows to the same Ontology tables, every other file
+	 * creates entities of its own.
+	 */
+	private static String getTarget(File file)
+	{
+		String name = file.getName().toLowerCase();
+		return name.endsWith(".owl.zip") || name.endsWith(".obo.zip") ? "Ontology" : file.getAbsolutePath();
+	}
+
+	private Map<String, Object> waitForImportRun(String importRunId)
+	{
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		Map<String, Object> importRun = getImportRun(importRunId);
+		while ("RUNNING".equals(importRun.get("status")))
+		{
+			if (System.currentTimeMillis() > deadline)
+			{
+				throw new IllegalStateException("ImportRun " + importRunId + " did not finish within "
+						+ TimeUnit.MILLISECONDS.toMinutes(TIMEOUT_MILLIS) + " minutes");
+			}
+			try
+			{
+				Thread.sleep(POLL_MILLIS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for ImportRun " + importRunId, e);
+			}
+			importRun = getImportRun(importRunId);
+		}
+		return importRun;
+	}
+
+	private Map<String, Object> getImportRun(String importRunId)
+	{
+		return tokenManager.call(uid, pwd, token -> client.get(token, "ImportRun", importRunId));
+	}
+}
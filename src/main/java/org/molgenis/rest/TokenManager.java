@@ -0,0 +1,158 @@
+package org.molgenis.rest;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.molgenis.data.rest.client.MolgenisClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Hands out one REST token per user, shared by all threads. A token is not checked until it is used: requests made
+ * through {@link #call(String, String, Function)} sign in again only when the server rejects the token, and retry once
+ * with the new one. Signing in happens outside the token map, under a lock per user, so that one slow sign in does not
+ * hold up the tokens of other users.
+ */
+public class TokenManager
+{
+	private static final Logger LOG = LoggerFactory.getLogger(TokenManager.class);
+
+	private final MolgenisClient client;
+	private final ConcurrentMap<String, String> tokens = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, Object> locks = new ConcurrentHashMap<>();
+	private final AtomicInteger logins = new AtomicInteger();
+	private final AtomicInteger refreshes = new AtomicInteger();
+
+	public TokenManager(MolgenisClient client)
+	{
+		this.client = requireNonNull(client);
+	}
+
+	/**
+	 * Returns the cached token of the user, signing in if there is none yet.
+	 */
+	public String getToken(String uid, String pwd)
+	{
+		String token = tokens.get(uid);
+		if (token != null)
+		{
+			return token;
+		}
+		synchronized (getLock(uid))
+		{
+			token = tokens.get(uid);
+			if (token == null)
+			{
+				token = login(uid, pwd);
+				tokens.put(uid, token);
+			}
+			return token;
+		}
+	}
+
+	/**
+	 * Makes a request with the token of the user. If the server rejects the token, signs in again and retries once.
+	 */
+	public <T> T call(String uid, String pwd, Function<String, T> request)
+	{
+		String token = getToken(uid, pwd);
+		try
+		{
+			return request.apply(token);
+		}
+		catch (HttpClientErrorException ex)
+		{
+			if (ex.getStatusCode() != HttpStatus.UNAUTHORIZED)
+			{
+				throw ex;
+			}
+			LOG.info("Token of {} was rejected, sign in again...", uid);
+			return request.apply(refresh(uid, pwd, token));
+		}
+	}
+
+	/**
+	 * Like {@link #call(String, String, Function)}, for requests without a result.
+	 */
+	public void run(String uid, String pwd, Consumer<String> request)
+	{
+		call(uid, pwd, token -> {
+			request.accept(token);
+			return null;
+		});
+	}
+
+	/**
+	 * Replaces a rejected token. If another thread replaced it already, returns that thread's token instead of signing
+	 * in once more.
+	 */
+	public String refresh(String uid, String pwd, String rejectedToken)
+	{
+		synchronized (getLock(uid))
+		{
+			String current = tokens.get(uid);
+			if (current != null && !current.equals(rejectedToken))
+			{
+				return current;
+			}
+			refreshes.incrementAndGet();
+			String token = login(uid, pwd);
+			tokens.put(uid, token);
+			return token;
+		}
+	}
+
+	/**
+	 * Signs out all users and forgets their tokens.
+	 */
+	public void logoutAll()
+	{
+		tokens.forEach((uid, token) -> {
+			try
+			{
+				client.logout(token);
+			}
+			catch (RuntimeException ex)
+			{
+				LOG.info("Failed to sign out {}. {}", uid, ex.getMessage());
+			}
+		});
+		tokens.clear();
+	}
+
+	public int getLoginCount()
+	{
+		return logins.get();
+	}
+
+	public int getRefreshCount()
+	{
+		return refreshes.get();
+	}
+
+	private Object getLock(String uid)
+	{
+		return locks.computeIfAbsent(uid, user -> new Object());
+	}
+
+	private String login(String uid, String pwd)
+	{
+		LOG.info("Sign in {} over REST...", uid);
+		logins.incrementAndGet();
+		return client.login(uid, pwd).getToken();
+	}
+
+	@Override
+	public String toString()
+	{
+		return "TokenManager[users=" + tokens.size() + ", logins=" + getLoginCount() + ", refreshes="
+				+ getRefreshCount() + "]";
+	}
+}
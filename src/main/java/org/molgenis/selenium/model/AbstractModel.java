@@ -1,17 +1,16 @@
 package org.molgenis.selenium.model;
 
-import static com.google.common.collect.Lists.transform;
 import static java.util.Objects.requireNonNull;
-import static java.util.stream.Collectors.toList;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.component.SpinnerModel;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.PageFactory;
 
 public abstract class AbstractModel
 {
@@ -19,12 +18,28 @@ public abstract class AbstractModel
 	protected final MenuModel menuModel;
 	protected final SpinnerModel spinnerModel;
 	public static final int IMPLICIT_WAIT_SECONDS = 30;
+	public static final long NETWORK_QUIET_MILLIS = 300;
+
+	/**
+	 * Returns the texts of the td cells of the rows in arguments[0], skipping the first arguments[1] cells of every
+	 * row. The texts are the rendered innerText, trimmed and with non-breaking spaces as spaces, like
+	 * {@link WebElement#getText()} returns them for visible cells.
+	 */
+	private static final String READ_TABLE = "var rows = arguments[0], skip = arguments[1], data = [];"
+			+ "for (var i = 0; i < rows.length; i++) {"
+			+ "  var cells = rows[i].querySelectorAll('td'), row = [];"
+			+ "  for (var j = skip; j < cells.length; j++) {"
+			+ "    row.push(cells[j].innerText.replace(/\\u00a0/g, ' ').replace(/^\\s+|\\s+$/g, ''));"
+			+ "  }"
+			+ "  data.push(row);"
+			+ "}"
+			+ "return data;";
 
 	public AbstractModel(WebDriver driver)
 	{
 		this.driver = requireNonNull(driver);
-		this.menuModel = PageFactory.initElements(driver, MenuModel.class);
-		this.spinnerModel = PageFactory.initElements(driver, SpinnerModel.class);
+		this.menuModel = Waits.initElements(driver, MenuModel.class);
+		this.spinnerModel = Waits.initElements(driver, SpinnerModel.class);
 	}
 
 	public SpinnerModel spinner()
@@ -37,15 +52,66 @@ public abstract class AbstractModel
 		return menuModel;
 	}
 
+	/**
+	 * Starts counting the requests of the page, see {@link NetworkMonitor}. Call it before the action whose requests
+	 * {@link #waitForNetworkIdle(long, long)} should wait for.
+	 */
+	protected void trackNetwork()
+	{
+		NetworkMonitor.install(driver);
+	}
+
+	/**
+	 * Waits until the page has had no requests in flight for the quiet period.
+	 *
+	 * @see NetworkMonitor#waitForNetworkIdle(WebDriver, long, long)
+	 */
+	protected void waitForNetworkIdle(long quietMillis, long deadline)
+	{
+		NetworkMonitor.waitForNetworkIdle(driver, quietMillis, deadline);
+	}
+
+	/**
+	 * Returns the {@link System#currentTimeMillis()} the given time from now, or sooner if the {@link TestBudget} of
+	 * the test runs out sooner.
+	 */
+	protected static long deadline(long timeout, TimeUnit unit)
+	{
+		return System.currentTimeMillis() + TestBudget.limit(unit.toMillis(timeout));
+	}
+
 	protected List<List<String>> getTableData(List<WebElement> tableRows)
 	{
-		return tableRows.stream().map(elt -> elt.findElements(By.cssSelector("td")))
-				.map(tds -> transform(tds, WebElement::getText)).collect(toList());
+		return getTableData(tableRows, 0);
+	}
+
+	/**
+	 * Reads the texts of the td cells of the rows in a single script, instead of a round trip per row and per cell.
+	 *
+	 * @param tableRows
+	 *            the tr elements
+	 * @param skipColumns
+	 *            the number of leading cells of every row to leave out
+	 * @return the rows, read once, with the texts of their cells
+	 */
+	protected List<List<String>> getTableData(List<WebElement> tableRows, int skipColumns)
+	{
+		List<?> rows = (List<?>) ((JavascriptExecutor) driver).executeScript(READ_TABLE, tableRows, skipColumns);
+		List<List<String>> result = new ArrayList<>(rows.size());
+		for (Object row : rows)
+		{
+			List<String> cells = new ArrayList<>();
+			for (Object cell : (List<?>) row)
+			{
+				cells.add((String) cell);
+			}
+			result.add(cells);
+		}
+		return result;
 	}
 
 	/**
 	 * Tests the absence of an element right now, without waiting if it perhaps will appear within the implicit timeout.
-	 * Resets the web driver's timeout to {@link #IMPLICIT_WAIT_SECONDS} when done.
 	 * 
 	 * @param webDriver
 	 *            WebDriver
@@ -54,17 +120,10 @@ public abstract class AbstractModel
 	 * @param by
 	 *            By: by is used to fined the WebElement and define if exist
 	 * @return
+	 * @see Waits#isAbsent(WebDriver, By, By)
 	 */
 	public static boolean noElementFound(WebDriver webDriver, By context, By by)
 	{
-		try
-		{
-			webDriver.manage().timeouts().implicitlyWait(1, TimeUnit.MILLISECONDS);
-			return (null == context ? webDriver : webDriver.findElement(context)).findElements(by).isEmpty();
-		}
-		finally
-		{
-			webDriver.manage().timeouts().implicitlyWait(IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS); // Restore default value
-		}
+		return Waits.isAbsent(webDriver, context, by);
 	}
 }
@@ -0,0 +1,179 @@
+package org.molgenis.selenium.model;
+
+import static java.util.Objects.requireNonNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * Waits for a condition like {@link org.openqa.selenium.support.ui.FluentWait}, but polls with a backoff: the first
+ * check comes right away, the next after the minimum interval, and every next interval is twice as long up to the
+ * maximum. Conditions that hold quickly are noticed within milliseconds, conditions that take long cost few round
+ * trips. Like {@link org.openqa.selenium.support.ui.WebDriverWait} it ignores {@link NotFoundException} by default.
+ * A wait in the condition of another wait ends at the latest at the deadline of the outer one, so nested waits do not
+ * add up their timeouts.
+ *
+ * Instances are immutable, so they can be shared by threads and reused; the with-methods return a configured copy.
+ * Get them from {@link Waits#waitFor(org.openqa.selenium.WebDriver, long)}.
+ */
+public class AdaptiveWait<F>
+{
+	/**
+	 * The deadline of the wait whose condition the current thread is evaluating, if any.
+	 */
+	private static final ThreadLocal<Long> OUTER_DEADLINE = new ThreadLocal<>();
+
+	private final F input;
+	private final long timeoutMillis;
+	private final long minPollMillis;
+	private final long maxPollMillis;
+	private final List<Class<? extends Throwable>> ignored;
+	private final String message;
+
+	public AdaptiveWait(F input, long timeout, TimeUnit unit, long minPollMillis, long maxPollMillis)
+	{
+		this(input, unit.toMillis(timeout), minPollMillis, maxPollMillis,
+				Collections.singletonList(NotFoundException.class), null);
+	}
+
+	private AdaptiveWait(F input, long timeoutMillis, long minPollMillis, long maxPollMillis,
+			List<Class<? extends Throwable>> ignored, String message)
+	{
+		if (minPollMillis < 1 || maxPollMillis < minPollMillis)
+		{
+			throw new IllegalArgumentException(
+					"Invalid poll intervals " + minPollMillis + " and " + maxPollMillis + " ms");
+		}
+		this.input = requireNonNull(input);
+		this.timeoutMillis = timeoutMillis;
+		this.minPollMillis = minPollMillis;
+		this.maxPollMillis = maxPollMillis;
+		this.ignored = Collections.unmodifiableList(ignored);
+		this.message = message;
+	}
+
+	public AdaptiveWait<F> withTimeout(long timeout, TimeUnit unit)
+	{
+		return new AdaptiveWait<>(input, unit.toMillis(timeout), minPollMillis, maxPollMillis, ignored, message);
+	}
+
+	/**
+	 * Polls with other intervals than the default of {@link Waits#BACKOFF_PROPERTY}.
+	 */
+	public AdaptiveWait<F> withBackoff(long minPollMillis, long maxPollMillis)
+	{
+		return new AdaptiveWait<>(input, timeoutMillis, minPollMillis, maxPollMillis, ignored, message);
+	}
+
+	/**
+	 * Also ignores these exceptions when the condition throws them.
+	 */
+	@SafeVarargs
+	public final AdaptiveWait<F> ignoring(Class<? extends Throwable>... types)
+	{
+		List<Class<? extends Throwable>> allIgnored = new ArrayList<>(ignored);
+		allIgnored.addAll(Arrays.asList(types));
+		return new AdaptiveWait<>(input, timeoutMillis, minPollMillis, maxPollMillis, allIgnored, message);
+	}
+
+	public AdaptiveWait<F> withMessage(String message)
+	{
+		return new AdaptiveWait<>(input, timeoutMillis, minPollMillis, maxPollMillis, ignored, message);
+	}
+
+	public long getTimeoutMillis()
+	{
+		return timeoutMillis;
+	}
+
+	/**
+	 * Applies the condition until it returns neither null nor false.
+	 *
+	 * @return the last value of the condition
+	 * @throws TimeoutException
+	 *             if the condition did not hold in time, a {@link TestBudget.BudgetExceededException} if the test
+	 *             spent its {@link TestBudget}
+	 */
+	public <T> T until(Function<? super F, T> isTrue)
+	{
+		Long outerDeadline = OUTER_DEADLINE.get();
+		long deadline = System.currentTimeMillis() + TestBudget.limit(timeoutMillis);
+		if (outerDeadline != null)
+		{
+			deadline = Math.min(deadline, outerDeadline);
+		}
+		long pollMillis = minPollMillis;
+		RuntimeException lastException = null;
+		while (true)
+		{
+			OUTER_DEADLINE.set(deadline);
+			try
+			{
+				T value = isTrue.apply(input);
+				if (value != null && !Boolean.FALSE.equals(value))
+				{
+					return value;
+				}
+			}
+			catch (RuntimeException ex)
+			{
+				if (!isIgnored(ex))
+				{
+					throw ex;
+				}
+				lastException = ex;
+			}
+			finally
+			{
+				restoreOuterDeadline(outerDeadline);
+			}
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0)
+			{
+				String condition = message != null ? message : String.valueOf(isTrue);
+				throw TestBudget.onTimeout(new TimeoutException("Expected condition failed: " + condition
+						+ " (tried for " + timeoutMillis + " ms with backoff " + minPollMillis + " to " + maxPollMillis
+						+ " ms)", lastException), condition);
+			}
+			sleep(Math.min(pollMillis, remaining));
+			pollMillis = Math.min(pollMillis * 2, maxPollMillis);
+		}
+	}
+
+	private static void restoreOuterDeadline(Long outerDeadline)
+	{
+		if (outerDeadline == null)
+		{
+			OUTER_DEADLINE.remove();
+		}
+		else
+		{
+			OUTER_DEADLINE.set(outerDeadline);
+		}
+	}
+
+	private boolean isIgnored(Throwable ex)
+	{
+		return ignored.stream().anyMatch(type -> type.isInstance(ex));
+	}
+
+	private static void sleep(long millis)
+	{
+		try
+		{
+			Thread.sleep(millis);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting", e);
+		}
+	}
+}
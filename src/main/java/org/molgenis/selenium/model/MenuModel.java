@@ -7,7 +7,6 @@ import org.molgenis.selenium.model.mappingservice.TagWizardModel;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -53,7 +52,7 @@ public class MenuModel
 	{
 		// click the sign in button on home page
 		signinButton.click();
-		return PageFactory.initElements(driver, SignInModel.class);
+		return Waits.initElements(driver, SignInModel.class);
 	}
 
 	public boolean isLoggedIn()
@@ -65,7 +64,7 @@ public class MenuModel
 	{
 		LOG.info("signOut");
 		signoutButton.click();
-		return PageFactory.initElements(driver, HomepageModel.class);
+		return Waits.initElements(driver, HomepageModel.class);
 	}
 
 	public boolean isSignedOut()
@@ -77,14 +76,14 @@ public class MenuModel
 	{
 		LOG.info("Select Importer...");
 		uploadMenuItem.click();
-		return PageFactory.initElements(driver, ImporterModel.class);
+		return Waits.initElements(driver, ImporterModel.class);
 	}
 
 	public DataExplorerModel selectDataExplorer()
 	{
 		LOG.info("Select Data explorer...");
 		dataExplorerMenuItem.click();
-		return PageFactory.initElements(driver, DataExplorerModel.class);
+		return Waits.initElements(driver, DataExplorerModel.class);
 	}
 
 	public MappingProjectsModel selectMappingService()
@@ -92,7 +91,7 @@ public class MenuModel
 		LOG.info("Select Mapping Service...");
 		dataIntegrationMenuItem.click();
 		mappingServiceMenuItem.click();
-		return PageFactory.initElements(driver, MappingProjectsModel.class);
+		return Waits.initElements(driver, MappingProjectsModel.class);
 	}
 
 	public TagWizardModel selectTagWizard()
@@ -100,7 +99,7 @@ public class MenuModel
 		LOG.info("Select Tag wizard...");
 		dataIntegrationMenuItem.click();
 		tagWizardMenuItem.click();
-		return PageFactory.initElements(driver, TagWizardModel.class);
+		return Waits.initElements(driver, TagWizardModel.class);
 	}
 
 }
@@ -0,0 +1,170 @@
+package org.molgenis.selenium.model;
+
+import java.util.List;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.SessionNotFoundException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Counts the XMLHttpRequest and fetch calls the page has in flight, through a hook that wraps both in the page. The
+ * hook only sees requests that start after it is installed, so install it with {@link #install(WebDriver)} before the
+ * action that starts them. A page that is loaded anew loses the hook; waiting installs it again and starts the quiet
+ * period over. Requests the new page started before that are not counted, so the hook also treats every request the
+ * browser finishes, as listed by the resource timing of the page, as network activity.
+ */
+public class NetworkMonitor
+{
+	private static final Logger LOG = LoggerFactory.getLogger(NetworkMonitor.class);
+
+	private static final long POLL_MILLIS = 20;
+
+	/**
+	 * Installs the hook unless the page has it already, and returns the number of requests in flight, the milliseconds
+	 * since that number or the number of finished requests last changed, the ready state of the document, the number of
+	 * requests counted and whether the hook was installed by this call.
+	 */
+	private static final String TRACK_NETWORK = "var net = window.molgenisNetwork;"
+			+ "var installed = !net;"
+			+ "var finished = function() {"
+			+ "  return window.performance ? performance.getEntriesByType('resource').length : 0;"
+			+ "};"
+			+ "if (installed) {"
+			+ "  if (window.performance && performance.setResourceTimingBufferSize) {"
+			+ "    performance.setResourceTimingBufferSize(100000);"
+			+ "  }"
+			+ "  net = window.molgenisNetwork = { inFlight: 0, since: Date.now(), total: 0, finished: finished() };"
+			+ "  var change = function(delta) {"
+			+ "    net.inFlight += delta; net.since = Date.now(); if (delta > 0) { net.total++; }"
+			+ "  };"
+			+ "  var send = XMLHttpRequest.prototype.send;"
+			+ "  XMLHttpRequest.prototype.send = function() {"
+			+ "    var done = false;"
+			+ "    var end = function() { if (!done) { done = true; change(-1); } };"
+			+ "    change(1);"
+			+ "    this.addEventListener('loadend', end);"
+			+ "    try { return send.apply(this, arguments); } catch (e) { end(); throw e; }"
+			+ "  };"
+			+ "  if (window.fetch) {"
+			+ "    var fetch = window.fetch;"
+			+ "    window.fetch = function() {"
+			+ "      change(1);"
+			+ "      return fetch.apply(this, arguments).then("
+			+ "          function(response) { change(-1); return response; },"
+			+ "          function(error) { change(-1); throw error; });"
+			+ "    };"
+			+ "  }"
+			+ "}"
+			+ "var nowFinished = finished();"
+			+ "if (nowFinished !== net.finished) { net.finished = nowFinished; net.since = Date.now(); }"
+			+ "return [net.inFlight, Date.now() - net.since, document.readyState, net.total, installed];";
+
+	private NetworkMonitor()
+	{
+	}
+
+	/**
+	 * Installs the hook in the current page, if it is not there yet.
+	 */
+	public static void install(WebDriver driver)
+	{
+		track(driver);
+	}
+
+	/**
+	 * Returns the number of requests the page has in flight, installing the hook if needed.
+	 */
+	public static int getInFlight(WebDriver driver)
+	{
+		return ((Number) track(driver).get(0)).intValue();
+	}
+
+	/**
+	 * Waits until the page is loaded and has had no requests in flight for the quiet period. The quiet period starts
+	 * no earlier than this call, so that requests that an action starts a little later are not missed, and starts over
+	 * if the action replaced the page.
+	 *
+	 * @param quietMillis
+	 *            how long the network must be idle
+	 * @param deadline
+	 *            the {@link System#currentTimeMillis()} after which to give up
+	 * @throws TimeoutException
+	 *             if the network is not idle before the deadline
+	 * @throws WebDriverException
+	 *             if the session of the driver is lost
+	 */
+	public static void waitForNetworkIdle(WebDriver driver, long quietMillis, long deadline)
+	{
+		WaitTimings.time("network idle", () -> {
+			long start = System.currentTimeMillis();
+			while (true)
+			{
+				String notIdle;
+				try
+				{
+					List<?> state = track(driver);
+					if (Boolean.TRUE.equals(state.get(4)))
+					{
+						LOG.debug("Page was replaced, count its requests from now on.");
+						start = System.currentTimeMillis();
+					}
+					long inFlight = ((Number) state.get(0)).longValue();
+					long unchangedMillis = Math.min(((Number) state.get(1)).longValue(),
+							System.currentTimeMillis() - start);
+					if (inFlight == 0 && "complete".equals(state.get(2)) && unchangedMillis >= quietMillis)
+					{
+						LOG.debug("Network idle after {} ms, {} requests on this page.",
+								System.currentTimeMillis() - start, state.get(3));
+						return null;
+					}
+					notIdle = inFlight + " requests in flight, document " + state.get(2);
+				}
+				catch (WebDriverException ex)
+				{
+					if (isSessionLost(ex))
+					{
+						throw ex;
+					}
+					// the page is being replaced
+					notIdle = ex.getClass().getSimpleName();
+				}
+				if (System.currentTimeMillis() > deadline)
+				{
+					throw TestBudget.onTimeout(new TimeoutException("Network did not become idle: " + notIdle),
+							"network idle");
+				}
+				sleep();
+			}
+		});
+	}
+
+	private static boolean isSessionLost(WebDriverException ex)
+	{
+		return ex instanceof UnreachableBrowserException || ex instanceof SessionNotFoundException
+				|| ex instanceof NoSuchSessionException;
+	}
+
+	private static List<?> track(WebDriver driver)
+	{
+		return (List<?>) ((JavascriptExecutor) driver).executeScript(TRACK_NETWORK);
+	}
+
+	private static void sleep()
+	{
+		try
+		{
+			Thread.sleep(POLL_MILLIS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the network", e);
+		}
+	}
+}
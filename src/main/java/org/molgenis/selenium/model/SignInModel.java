@@ -3,11 +3,10 @@ package org.molgenis.selenium.model;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 /**
  * This is a model of the MOLGENIS login user interface. To create it, use the
- * {@link PageFactory#initElements(WebDriver, Class) method.}
+ * {@link Waits#initElements(WebDriver, Class) method.}
  */
 public class SignInModel
 {
@@ -36,7 +35,7 @@ public class SignInModel
 	public HomepageModel signIn(String user, String password)
 	{
 		trySignIn(user, password);
-		return PageFactory.initElements(driver, HomepageModel.class);
+		return Waits.initElements(driver, HomepageModel.class);
 	}
 
 	public SignInModel signInFails(String user, String password)
@@ -48,7 +47,7 @@ public class SignInModel
 	public HomepageModel close()
 	{
 		closeButton.click();
-		return PageFactory.initElements(driver, HomepageModel.class);
+		return Waits.initElements(driver, HomepageModel.class);
 	}
 
 	private void trySignIn(String user, String password)
@@ -0,0 +1,318 @@
+package org.molgenis.selenium.model;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.summingLong;
+import static java.util.stream.Collectors.toList;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.MethodInterceptor;
+
+import com.google.gson.GsonBuilder;
+
+/**
+ * Times the public actions of the page models. Models created through {@link #newModel(Class, Class[], Object...)}
+ * are subclassed at runtime, so that every public method they declare records a step: the test it ran in, when it
+ * started, how long it took, the step it was called from and whether it returned or threw. Actions that call other
+ * actions of the models show up nested.
+ *
+ * Enabled when the system property {@link #OUTPUT_PROPERTY} names the directory {@link #write()} writes the steps of
+ * the run to, as JSON and as CSV.
+ */
+public class StepTimings
+{
+	private static final Logger LOG = LoggerFactory.getLogger(StepTimings.class);
+
+	public static final String OUTPUT_PROPERTY = "molgenis.selenium.timings";
+
+	public static final String OK = "OK";
+
+	private static final String MODEL_PACKAGE = StepTimings.class.getPackage().getName();
+	private static final String NO_TEST = "";
+	private static final int SLOWEST_ACTIONS_LOGGED = 10;
+
+	private static final AtomicLong IDS = new AtomicLong();
+	private static final Queue<Step> STEPS = new ConcurrentLinkedQueue<>();
+	private static final ThreadLocal<String> TEST = ThreadLocal.withInitial(() -> NO_TEST);
+	private static final ThreadLocal<Deque<Long>> OPEN_STEPS = ThreadLocal.withInitial(ArrayDeque::new);
+
+	private static final MethodInterceptor TIMER = (model, method, args, methodProxy) -> {
+		if (!isAction(method))
+		{
+			return methodProxy.invokeSuper(model, args);
+		}
+		Deque<Long> open = OPEN_STEPS.get();
+		Step step = new Step(IDS.incrementAndGet(), TEST.get(), Thread.currentThread().getName(),
+				method.getDeclaringClass().getSimpleName() + '.' + method.getName(), open.size(), open.peek());
+		open.push(step.id);
+		long startNanos = System.nanoTime();
+		try
+		{
+			Object result = methodProxy.invokeSuper(model, args);
+			step.outcome = OK;
+			return result;
+		}
+		catch (Throwable t)
+		{
+			step.outcome = t.getClass().getSimpleName();
+			throw t;
+		}
+		finally
+		{
+			step.durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+			open.pop();
+			STEPS.add(step);
+		}
+	};
+
+	private StepTimings()
+	{
+	}
+
+	public static boolean isEnabled()
+	{
+		return !System.getProperty(OUTPUT_PROPERTY, "").isEmpty();
+	}
+
+	/**
+	 * Creates a model with the constructor that takes the given parameter types. If timing is enabled, the model times
+	 * its public actions.
+	 */
+	public static <T> T newModel(Class<T> modelClass, Class<?>[] parameterTypes, Object... args)
+	{
+		if (isEnabled())
+		{
+			Enhancer enhancer = new Enhancer();
+			enhancer.setSuperclass(modelClass);
+			enhancer.setCallback(TIMER);
+			return modelClass.cast(enhancer.create(parameterTypes, args));
+		}
+		try
+		{
+			return modelClass.getConstructor(parameterTypes).newInstance(args);
+		}
+		catch (NoSuchMethodException | InstantiationException | IllegalAccessException | InvocationTargetException e)
+		{
+			throw new IllegalArgumentException("Cannot instantiate model " + modelClass.getName(), e);
+		}
+	}
+
+	/**
+	 * Attributes the steps of the current thread to a test, until {@link #endTest()}.
+	 */
+	public static void startTest(String test)
+	{
+		TEST.set(test);
+	}
+
+	public static void endTest()
+	{
+		TEST.set(NO_TEST);
+	}
+
+	/**
+	 * Public methods declared by the models themselves, not the accessors of {@link AbstractModel}.
+	 */
+	private static boolean isAction(Method method)
+	{
+		Class<?> declaringClass = method.getDeclaringClass();
+		return Modifier.isPublic(method.getModifiers()) && declaringClass != AbstractModel.class
+				&& declaringClass.getName().startsWith(MODEL_PACKAGE);
+	}
+
+	/**
+	 * Returns the steps recorded so far, in the order they started.
+	 */
+	public static List<Step> getSteps()
+	{
+		List<Step> steps = new ArrayList<>(STEPS);
+		steps.sort(comparing(Step::getId));
+		return steps;
+	}
+
+	/**
+	 * Writes the steps recorded so far to steps-{timestamp}.json and steps-{timestamp}.csv in the directory of
+	 * {@link #OUTPUT_PROPERTY}, logs the actions that took longest in total and the median duration, and forgets the
+	 * steps.
+	 */
+	public static void write()
+	{
+		if (!isEnabled() || STEPS.isEmpty())
+		{
+			return;
+		}
+		List<Step> steps = getSteps();
+		STEPS.clear();
+		File directory = new File(System.getProperty(OUTPUT_PROPERTY));
+		String name = "steps-" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date());
+		try
+		{
+			Files.createDirectories(directory.toPath());
+			File json = new File(directory, name + ".json");
+			try (Writer writer = Files.newBufferedWriter(json.toPath(), StandardCharsets.UTF_8))
+			{
+				new GsonBuilder().setPrettyPrinting().create().toJson(steps, writer);
+			}
+			File csv = new File(directory, name + ".csv");
+			try (Writer writer = Files.newBufferedWriter(csv.toPath(), StandardCharsets.UTF_8))
+			{
+				writer.write("id,parent,depth,test,thread,action,startMillis,durationMillis,outcome\n");
+				for (Step step : steps)
+				{
+					writer.write(step.toCsv());
+				}
+			}
+			LOG.info("Wrote {} steps to {} and {}.", steps.size(), json, csv);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException("Failed to write the step timings to " + directory, e);
+		}
+		logSlowestActions(steps);
+		logMedianDuration(steps);
+	}
+
+	/**
+	 * Logs the actions that took longest in total. Only top-level steps are counted, nested steps are part of them.
+	 */
+	private static void logSlowestActions(List<Step> steps)
+	{
+		Map<String, Long> millisPerAction = steps.stream().filter(step -> step.depth == 0)
+				.collect(groupingBy(Step::getAction, summingLong(Step::getDurationMillis)));
+		List<Map.Entry<String, Long>> slowest = millisPerAction.entrySet().stream()
+				.sorted(Map.Entry.<String, Long> comparingByValue().reversed()).limit(SLOWEST_ACTIONS_LOGGED)
+				.collect(toList());
+		LOG.info("Actions that took longest: {}", slowest);
+	}
+
+	/**
+	 * Logs the median duration of the top-level steps with the backoff of the waits, so that runs with a different
+	 * {@link Waits#BACKOFF_PROPERTY} can be compared.
+	 */
+	private static void logMedianDuration(List<Step> steps)
+	{
+		long[] durations = steps.stream().filter(step -> step.depth == 0).mapToLong(Step::getDurationMillis).sorted()
+				.toArray();
+		if (durations.length > 0)
+		{
+			LOG.info("Median action took {} ms over {} actions, waits polling with backoff {} ms.",
+					durations[durations.length / 2], durations.length,
+					System.getProperty(Waits.BACKOFF_PROPERTY, Waits.DEFAULT_BACKOFF));
+		}
+	}
+
+	/**
+	 * One call of a public model action.
+	 */
+	public static class Step
+	{
+		private final long id;
+		private final Long parent;
+		private final int depth;
+		private final String test;
+		private final String thread;
+		private final String action;
+		private final long startMillis = System.currentTimeMillis();
+		private long durationMillis;
+		private String outcome;
+
+		Step(long id, String test, String thread, String action, int depth, Long parent)
+		{
+			this.id = id;
+			this.test = test;
+			this.thread = thread;
+			this.action = action;
+			this.depth = depth;
+			this.parent = parent;
+		}
+
+		public long getId()
+		{
+			return id;
+		}
+
+		/**
+		 * The id of the step this step was called from, or null for a top-level step.
+		 */
+		public Long getParent()
+		{
+			return parent;
+		}
+
+		public int getDepth()
+		{
+			return depth;
+		}
+
+		/**
+		 * The test the step ran in, empty outside of test methods.
+		 */
+		public String getTest()
+		{
+			return test;
+		}
+
+		public String getAction()
+		{
+			return action;
+		}
+
+		public long getStartMillis()
+		{
+			return startMillis;
+		}
+
+		public long getDurationMillis()
+		{
+			return durationMillis;
+		}
+
+		/**
+		 * {@link StepTimings#OK}, or the simple name of the exception the step threw.
+		 */
+		public String getOutcome()
+		{
+			return outcome;
+		}
+
+		String toCsv()
+		{
+			return id + "," + (parent == null ? "" : parent) + "," + depth + "," + quote(test) + "," + quote(thread)
+					+ "," + quote(action) + "," + startMillis + "," + durationMillis + "," + quote(outcome) + "\n";
+		}
+
+		private static String quote(String value)
+		{
+			return '"' + value.replace("\"", "\"\"") + '"';
+		}
+
+		@Override
+		public String toString()
+		{
+			return action + " " + durationMillis + " ms " + outcome;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package org.molgenis.selenium.model;
+
+import static java.util.stream.Collectors.joining;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.TimeoutException;
+
+/**
+ * The time a test may spend in total. Between {@link #start(String, long)} and {@link #end()} every wait and sleep of
+ * the page models on the thread asks {@link #limit(long)} for its timeout, and so gets the smaller of its own timeout
+ * and the time left in the budget. The implicit wait of element lookups is limited the same way, see
+ * {@link Waits#getImplicitWaitMillis()}. A wait that times out because the budget is spent throws a
+ * {@link BudgetExceededException} with a report of the waits the test spent its time in, and later waits of the test
+ * throw it right away, so that a broken test fails within its budget instead of after minutes of timeouts.
+ */
+public class TestBudget
+{
+	/**
+	 * The budget of a test in seconds, unless the test declares its own. 0 for no budget.
+	 */
+	public static final String SECONDS_PROPERTY = "molgenis.selenium.budget";
+
+	private static final int WAITS_REPORTED = 5;
+
+	private static final ThreadLocal<Budget> CURRENT = new ThreadLocal<>();
+
+	private TestBudget()
+	{
+	}
+
+	/**
+	 * Returns the default budget configured in {@link #SECONDS_PROPERTY} in milliseconds, 0 for none.
+	 */
+	public static long getDefaultMillis()
+	{
+		return TimeUnit.SECONDS.toMillis(Long.parseLong(System.getProperty(SECONDS_PROPERTY, "0")));
+	}
+
+	/**
+	 * Starts the budget of a test on the current thread, until {@link #end()}.
+	 *
+	 * @param budgetMillis
+	 *            the budget, 0 or less for no budget
+	 */
+	public static void start(String test, long budgetMillis)
+	{
+		if (budgetMillis > 0)
+		{
+			CURRENT.set(new Budget(test, budgetMillis));
+		}
+		else
+		{
+			CURRENT.remove();
+		}
+	}
+
+	public static void end()
+	{
+		CURRENT.remove();
+	}
+
+	/**
+	 * Returns the milliseconds left in the budget of the current test, {@link Long#MAX_VALUE} if it has none.
+	 */
+	public static long getRemainingMillis()
+	{
+		Budget budget = CURRENT.get();
+		return budget == null ? Long.MAX_VALUE : budget.getRemainingMillis();
+	}
+
+	/**
+	 * Returns the smaller of the timeout and the time left in the budget.
+	 *
+	 * @throws BudgetExceededException
+	 *             if the budget is spent
+	 */
+	public static long limit(long timeoutMillis)
+	{
+		Budget budget = CURRENT.get();
+		if (budget == null)
+		{
+			return timeoutMillis;
+		}
+		long remaining = budget.getRemainingMillis();
+		if (remaining <= 0)
+		{
+			throw new BudgetExceededException(budget.getReport(), null);
+		}
+		return Math.min(timeoutMillis, remaining);
+	}
+
+	/**
+	 * Returns the exception a wait should throw after it timed out: a {@link BudgetExceededException} if the budget of
+	 * the test is spent, the timeout itself otherwise.
+	 *
+	 * @param wait
+	 *            what the wait that timed out waited for
+	 */
+	public static TimeoutException onTimeout(TimeoutException timeout, String wait)
+	{
+		Budget budget = CURRENT.get();
+		if (budget == null || budget.getRemainingMillis() > 0)
+		{
+			return timeout;
+		}
+		return new BudgetExceededException(budget.getReport() + "\nRan out waiting for " + wait, timeout);
+	}
+
+	/**
+	 * Charges a wait to the budget of the current test, for the report.
+	 *
+	 * @param wait
+	 *            the call site and condition of the wait
+	 */
+	static void spent(String wait, long millis)
+	{
+		Budget budget = CURRENT.get();
+		if (budget != null)
+		{
+			budget.waitMillis.merge(wait, millis, Long::sum);
+		}
+	}
+
+	/**
+	 * Thrown by a wait when the test has spent its budget. It is a {@link TimeoutException}, so code that expects a
+	 * wait to time out should rethrow it.
+	 */
+	public static class BudgetExceededException extends TimeoutException
+	{
+		private static final long serialVersionUID = 1L;
+
+		BudgetExceededException(String report, Throwable cause)
+		{
+			super(report, cause);
+		}
+	}
+
+	private static class Budget
+	{
+		private final String test;
+		private final long budgetMillis;
+		private final long startNanos = System.nanoTime();
+		private final Map<String, Long> waitMillis = new LinkedHashMap<>();
+
+		Budget(String test, long budgetMillis)
+		{
+			this.test = test;
+			this.budgetMillis = budgetMillis;
+		}
+
+		long getElapsedMillis()
+		{
+			return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+		}
+
+		long getRemainingMillis()
+		{
+			return budgetMillis - getElapsedMillis();
+		}
+
+		String getReport()
+		{
+			long waited = waitMillis.values().stream().mapToLong(Long::longValue).sum();
+			String waits = waitMillis.entrySet().stream()
+					.sorted(Map.Entry.<String, Long> comparingByValue().reversed()).limit(WAITS_REPORTED)
+					.map(entry -> entry.getValue() + " ms at " + entry.getKey()).collect(joining("\n  "));
+			return test + " spent its budget of " + budgetMillis + " ms after " + getElapsedMillis() + " ms, "
+					+ waited + " ms of it waiting. Longest waits:\n  " + (waits.isEmpty() ? "none" : waits);
+		}
+	}
+}
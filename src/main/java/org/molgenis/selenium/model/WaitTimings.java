@@ -0,0 +1,240 @@
+package org.molgenis.selenium.model;
+
+import static java.util.Comparator.comparing;
+import static java.util.stream.Collectors.joining;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.openqa.selenium.WebDriver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Accounts for the time the models spend blocked in waits. Every wait is attributed to its call site, the first frame
+ * in MOLGENIS code outside of the wait helpers, and to the condition it waited for. A wait inside another wait, like
+ * the waits of {@link org.molgenis.selenium.model.component.SpinnerModel#waitTillDone}, counts towards the outer one
+ * only, so that no millisecond is counted twice.
+ *
+ * Between {@link #startTest(String)} and {@link #endTest()} the waits also count towards the test, so that
+ * {@link #getReport()} can split the time of each test into waiting and active work.
+ */
+public class WaitTimings
+{
+	private static final Logger LOG = LoggerFactory.getLogger(WaitTimings.class);
+
+	private static final String CALLER_PACKAGE = "org.molgenis.";
+
+	private static final Map<String, Site> SITES = new ConcurrentHashMap<>();
+	private static final Map<String, Test> TESTS = new ConcurrentHashMap<>();
+	private static final ThreadLocal<Test> CURRENT_TEST = new ThreadLocal<>();
+	private static final ThreadLocal<AtomicInteger> DEPTH = ThreadLocal.withInitial(AtomicInteger::new);
+
+	private WaitTimings()
+	{
+	}
+
+	/**
+	 * Waits until the condition holds, see {@link AdaptiveWait#until(Function)}.
+	 *
+	 * @param condition
+	 *            what is waited for, e.g. "spinner hidden"
+	 */
+	public static <T> T until(AdaptiveWait<WebDriver> wait, String condition, Function<? super WebDriver, T> isTrue)
+	{
+		return time(condition, () -> wait.until(isTrue));
+	}
+
+	/**
+	 * Sleeps, see {@link Thread#sleep(long)}, but no longer than the time left in the {@link TestBudget} of the test.
+	 *
+	 * @param condition
+	 *            what the sleep gives time for
+	 * @throws TestBudget.BudgetExceededException
+	 *             if the budget is spent
+	 */
+	public static void sleep(long millis, String condition) throws InterruptedException
+	{
+		long limited = TestBudget.limit(millis);
+		time(condition, () -> {
+			Thread.sleep(limited);
+			return null;
+		});
+	}
+
+	/**
+	 * Runs a blocking call and accounts for the time it takes.
+	 *
+	 * @param condition
+	 *            what the call waits for
+	 */
+	public static <T, E extends Exception> T time(String condition, Blocking<T, E> blocking) throws E
+	{
+		AtomicInteger depth = DEPTH.get();
+		if (depth.getAndIncrement() > 0)
+		{
+			try
+			{
+				return blocking.get();
+			}
+			finally
+			{
+				depth.decrementAndGet();
+			}
+		}
+		String callSite = getCallSite();
+		long start = System.nanoTime();
+		try
+		{
+			return blocking.get();
+		}
+		finally
+		{
+			long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+			depth.decrementAndGet();
+			SITES.computeIfAbsent(callSite + ' ' + condition, key -> new Site(callSite, condition)).add(millis);
+			TestBudget.spent(callSite + " for " + condition, millis);
+			Test test = CURRENT_TEST.get();
+			if (test != null)
+			{
+				test.waitMillis.addAndGet(millis);
+			}
+		}
+	}
+
+	/**
+	 * Attributes the waits of the current thread to a test, until {@link #endTest()}.
+	 */
+	public static void startTest(String name)
+	{
+		Test test = new Test(name);
+		TESTS.put(name, test);
+		CURRENT_TEST.set(test);
+	}
+
+	public static void endTest()
+	{
+		Test test = CURRENT_TEST.get();
+		if (test != null)
+		{
+			test.wallMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - test.startNanos);
+			CURRENT_TEST.remove();
+		}
+	}
+
+	/**
+	 * Returns the waiting time per call site, the longest first, and the tests with their time split into waiting and
+	 * active work, the most waiting first.
+	 */
+	public static String getReport()
+	{
+		String sites = SITES.values().stream().sorted(comparing(Site::getMillis).reversed()).map(Site::toString)
+				.collect(joining("\n  "));
+		String tests = TESTS.values().stream().filter(test -> test.wallMillis >= 0)
+				.sorted(comparing(Test::getWaitMillis).reversed()).map(Test::toString).collect(joining("\n  "));
+		return "Waits per call site:\n  " + sites + "\nTests, active and waiting:\n  " + tests;
+	}
+
+	/**
+	 * Logs the report and forgets the waits.
+	 */
+	public static void logReport()
+	{
+		if (SITES.isEmpty())
+		{
+			return;
+		}
+		LOG.info("{}", getReport());
+		SITES.clear();
+		TESTS.clear();
+	}
+
+	/**
+	 * Returns the first frame in MOLGENIS code that is not a wait helper or a generated subclass, as
+	 * Class.method:line.
+	 */
+	private static String getCallSite()
+	{
+		for (StackTraceElement frame : Thread.currentThread().getStackTrace())
+		{
+			String className = frame.getClassName();
+			if (className.startsWith(CALLER_PACKAGE) && !className.startsWith(WaitTimings.class.getName())
+					&& !className.startsWith(Waits.class.getName()) && !className.contains("$$"))
+			{
+				return className.substring(className.lastIndexOf('.') + 1) + '.' + frame.getMethodName() + ':'
+						+ frame.getLineNumber();
+			}
+		}
+		return "unknown";
+	}
+
+	/**
+	 * A call that blocks, and may throw a checked exception.
+	 */
+	@FunctionalInterface
+	public interface Blocking<T, E extends Exception>
+	{
+		T get() throws E;
+	}
+
+	private static class Site
+	{
+		private final String callSite;
+		private final String condition;
+		private final AtomicInteger count = new AtomicInteger();
+		private final AtomicLong millis = new AtomicLong();
+
+		Site(String callSite, String condition)
+		{
+			this.callSite = callSite;
+			this.condition = condition;
+		}
+
+		void add(long waitMillis)
+		{
+			count.incrementAndGet();
+			millis.addAndGet(waitMillis);
+		}
+
+		long getMillis()
+		{
+			return millis.get();
+		}
+
+		@Override
+		public String toString()
+		{
+			return millis + " ms in " + count + " waits at " + callSite + " for " + condition;
+		}
+	}
+
+	private static class Test
+	{
+		private final String name;
+		private final long startNanos = System.nanoTime();
+		private final AtomicLong waitMillis = new AtomicLong();
+		private volatile long wallMillis = -1;
+
+		Test(String name)
+		{
+			this.name = name;
+		}
+
+		long getWaitMillis()
+		{
+			return waitMillis.get();
+		}
+
+		@Override
+		public String toString()
+		{
+			long waiting = waitMillis.get();
+			return name + " took " + wallMillis + " ms: " + (wallMillis - waiting) + " ms active, " + waiting
+					+ " ms waiting (" + (wallMillis == 0 ? 0 : 100 * waiting / wallMillis) + "%)";
+		}
+	}
+}
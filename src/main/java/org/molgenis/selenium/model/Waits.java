@@ -0,0 +1,292 @@
+package org.molgenis.selenium.model;
+
+import java.lang.reflect.Field;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocatorFactory;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import com.google.common.collect.MapMaker;
+
+/**
+ * The layer through which the models locate elements.
+ *
+ * In {@link Mode#IMPLICIT} mode the drivers wait {@link AbstractModel#IMPLICIT_WAIT_SECONDS} for every lookup, or
+ * less when the {@link TestBudget} of the test runs out, see {@link #getImplicitWaitMillis()}, and the methods here
+ * simply delegate to the driver. In {@link Mode#EXPLICIT} mode the implicit wait is 0: a lookup that must
+ * find its element polls for it until its own deadline, and a check for absence is a single round trip that returns
+ * right away. A lookup inside a wait never outlasts the deadline of that wait.
+ *
+ * Waits for conditions come from {@link #waitFor(WebDriver, long)}. They poll with the backoff configured in
+ * {@link #BACKOFF_PROPERTY}, so that a condition that holds quickly does not cost a full polling interval.
+ */
+public class Waits
+{
+	public static final String MODE_PROPERTY = "molgenis.selenium.waits";
+
+	/**
+	 * The minimum and maximum polling interval of the waits in milliseconds, as min,max. Set to 500,500 to poll like
+	 * {@link org.openqa.selenium.support.ui.WebDriverWait}.
+	 */
+	public static final String BACKOFF_PROPERTY = "molgenis.selenium.waits.backoff";
+
+	public static final String DEFAULT_BACKOFF = "10,500";
+
+	/**
+	 * The waits handed out per driver and timeout. The keys are weak and compared by identity, so that a driver that
+	 * is quit and dropped takes its waits with it.
+	 */
+	private static final Map<WebDriver, Map<Long, AdaptiveWait<WebDriver>>> WAITS = new MapMaker().weakKeys()
+			.makeMap();
+
+	public static enum Mode
+	{
+		IMPLICIT, EXPLICIT;
+	}
+
+	private Waits()
+	{
+	}
+
+	/**
+	 * Returns the mode configured in the system property {@link #MODE_PROPERTY}, {@link Mode#IMPLICIT} by default.
+	 */
+	public static Mode getMode()
+	{
+		return Mode.valueOf(System.getProperty(MODE_PROPERTY, Mode.IMPLICIT.name()).toUpperCase());
+	}
+
+	public static boolean isExplicit()
+	{
+		return getMode() == Mode.EXPLICIT;
+	}
+
+	/**
+	 * Returns the implicit wait the drivers should be configured with in the current mode.
+	 */
+	public static int getImplicitWaitSeconds()
+	{
+		return isExplicit() ? 0 : AbstractModel.IMPLICIT_WAIT_SECONDS;
+	}
+
+	/**
+	 * Returns the implicit wait for a lookup right now: the one of the current mode, but no longer than the time left
+	 * in the {@link TestBudget} of the test, rounded up to whole seconds so that it changes at most once a second.
+	 */
+	public static long getImplicitWaitMillis()
+	{
+		long millis = TimeUnit.SECONDS.toMillis(getImplicitWaitSeconds());
+		long remaining = TestBudget.getRemainingMillis();
+		if (remaining >= millis)
+		{
+			return millis;
+		}
+		return remaining <= 0 ? 0 : TimeUnit.SECONDS.toMillis(TimeUnit.MILLISECONDS.toSeconds(remaining + 999));
+	}
+
+	/**
+	 * Returns the wait for the driver with the given timeout, polling with the configured backoff. The waits are
+	 * immutable and reused; configure them for a call site with the with-methods of {@link AdaptiveWait}, which
+	 * return a copy.
+	 */
+	public static AdaptiveWait<WebDriver> waitFor(WebDriver driver, long timeoutSeconds)
+	{
+		return WAITS.computeIfAbsent(driver, key -> new ConcurrentHashMap<>()).computeIfAbsent(timeoutSeconds,
+				key -> newWait(driver, timeoutSeconds, TimeUnit.SECONDS));
+	}
+
+	private static <F> AdaptiveWait<F> newWait(F input, long timeout, TimeUnit unit)
+	{
+		String[] backoff = System.getProperty(BACKOFF_PROPERTY, DEFAULT_BACKOFF).split(",");
+		return new AdaptiveWait<>(input, timeout, unit, Long.parseLong(backoff[0].trim()),
+				Long.parseLong(backoff[backoff.length - 1].trim()));
+	}
+
+	/**
+	 * Finds an element, waiting at most {@link AbstractModel#IMPLICIT_WAIT_SECONDS} for it to appear.
+	 */
+	public static WebElement find(SearchContext context, By by)
+	{
+		return find(context, by, AbstractModel.IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Finds an element, waiting at most the given time for it to appear. In implicit mode the driver's implicit wait
+	 * applies instead.
+	 *
+	 * @throws org.openqa.selenium.TimeoutException
+	 *             if the element does not appear in time
+	 */
+	public static WebElement find(SearchContext context, By by, long timeout, TimeUnit unit)
+	{
+		if (!isExplicit())
+		{
+			return context.findElement(by);
+		}
+		return WaitTimings.time("element " + by, () -> newWait(context, timeout, unit)
+				.ignoring(StaleElementReferenceException.class).withMessage("waiting for element " + by)
+				.until(searchContext -> searchContext.findElement(by)));
+	}
+
+	/**
+	 * Finds the elements, waiting at most {@link AbstractModel#IMPLICIT_WAIT_SECONDS} for the first to appear.
+	 */
+	public static List<WebElement> findAll(SearchContext context, By by)
+	{
+		return findAll(context, by, AbstractModel.IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Finds the elements, waiting at most the given time for the first to appear, like the implicit wait of the driver
+	 * does. In implicit mode the driver's implicit wait applies instead.
+	 *
+	 * @return the elements, empty if none appeared in time
+	 */
+	public static List<WebElement> findAll(SearchContext context, By by, long timeout, TimeUnit unit)
+	{
+		if (!isExplicit())
+		{
+			return context.findElements(by);
+		}
+		try
+		{
+			return WaitTimings.time("elements " + by, () -> newWait(context, timeout, unit)
+					.withMessage("waiting for elements " + by).until(searchContext -> {
+						List<WebElement> elements = searchContext.findElements(by);
+						return elements.isEmpty() ? null : elements;
+					}));
+		}
+		catch (TestBudget.BudgetExceededException ex)
+		{
+			throw ex;
+		}
+		catch (TimeoutException ex)
+		{
+			return Collections.emptyList();
+		}
+	}
+
+	/**
+	 * Tests the absence of an element right now, without waiting for it to appear. In implicit mode this takes two
+	 * extra round trips to switch the implicit wait off and on again.
+	 *
+	 * @param driver
+	 *            the {@link WebDriver}
+	 * @param context
+	 *            the element to search in, or null to search the whole page
+	 * @param by
+	 *            locates the element
+	 */
+	public static boolean isAbsent(WebDriver driver, By context, By by)
+	{
+		if (isExplicit())
+		{
+			return (null == context ? driver : driver.findElement(context)).findElements(by).isEmpty();
+		}
+		try
+		{
+			driver.manage().timeouts().implicitlyWait(1, TimeUnit.MILLISECONDS);
+			return (null == context ? driver : driver.findElement(context)).findElements(by).isEmpty();
+		}
+		finally
+		{
+			driver.manage().timeouts().implicitlyWait(getImplicitWaitMillis(), TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Instantiates a model and initializes its {@link org.openqa.selenium.support.FindBy} fields, like
+	 * {@link PageFactory#initElements(WebDriver, Class)}. In explicit mode the fields locate their elements through
+	 * {@link #find(SearchContext, By)} and {@link #findAll(SearchContext, By)}. The model is created through
+	 * {@link StepTimings}, which times its actions if enabled.
+	 */
+	public static <T> T initElements(WebDriver driver, Class<T> pageClass)
+	{
+		T page = StepTimings.newModel(pageClass, new Class<?>[] { WebDriver.class }, driver);
+		ElementLocatorFactory locatorFactory = isExplicit() ? new WaitingElementLocatorFactory(driver)
+				: new DefaultElementLocatorFactory(driver);
+		PageFactory.initElements(locatorFactory, page);
+		return page;
+	}
+
+	private static class WaitingElementLocatorFactory implements ElementLocatorFactory
+	{
+		private final SearchContext searchContext;
+
+		WaitingElementLocatorFactory(SearchContext searchContext)
+		{
+			this.searchContext = searchContext;
+		}
+
+		@Override
+		public ElementLocator createLocator(Field field)
+		{
+			Annotations annotations = new Annotations(field);
+			return new WaitingElementLocator(searchContext, annotations.buildBy(), annotations.isLookupCached());
+		}
+	}
+
+	/**
+	 * Locates the elements of a field, and keeps them if the field is annotated with
+	 * {@link org.openqa.selenium.support.CacheLookup}, like {@link DefaultElementLocator} does.
+	 */
+	private static class WaitingElementLocator implements ElementLocator
+	{
+		private final SearchContext searchContext;
+		private final By by;
+		private final boolean shouldCache;
+		private WebElement cachedElement;
+		private List<WebElement> cachedElementList;
+
+		WaitingElementLocator(SearchContext searchContext, By by, boolean shouldCache)
+		{
+			this.searchContext = searchContext;
+			this.by = by;
+			this.shouldCache = shouldCache;
+		}
+
+		@Override
+		public WebElement findElement()
+		{
+			if (cachedElement != null)
+			{
+				return cachedElement;
+			}
+			WebElement element = find(searchContext, by);
+			if (shouldCache)
+			{
+				cachedElement = element;
+			}
+			return element;
+		}
+
+		@Override
+		public List<WebElement> findElements()
+		{
+			if (cachedElementList != null)
+			{
+				return cachedElementList;
+			}
+			List<WebElement> elements = findAll(searchContext, by);
+			if (shouldCache && !elements.isEmpty())
+			{
+				cachedElementList = elements;
+			}
+			return elements;
+		}
+	}
+}
@@ -8,13 +8,17 @@ import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang3.StringUtils;
+import org.molgenis.selenium.model.AdaptiveWait;
+import org.molgenis.selenium.model.StepTimings;
+import org.molgenis.selenium.model.TestBudget.BudgetExceededException;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.openqa.selenium.By;
 import org.openqa.selenium.StaleElementReferenceException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,7 +43,7 @@ public class Select2Model
 	private final By selectedOptionSelector;
 	private final By selectSelector;
 	private boolean multi;
-	private final WebDriverWait tenSecondWait;
+	private final AdaptiveWait<WebDriver> tenSecondWait;
 
 	/**
 	 * Creates a new Select2Model
@@ -58,7 +62,19 @@ public class Select2Model
 		selectedOptionSelector = By
 				.cssSelector("#s2id_" + this.id + (multi ? " .select2-choices" : " .select2-choice"));
 		selectSelector = By.id("s2id_" + this.id);
-		tenSecondWait = new WebDriverWait(driver, 10);
+		tenSecondWait = Waits.waitFor(driver, 10);
+	}
+
+	/**
+	 * Creates a new Select2Model through {@link StepTimings}, which times its actions if enabled.
+	 *
+	 * @param driver   the {@link WebDriver} to use
+	 * @param id the id of the Select2, without the s2id_ prefix
+	 */
+	public static Select2Model create(WebDriver driver, String id, boolean multi)
+	{
+		return StepTimings.newModel(Select2Model.class, new Class<?>[] { WebDriver.class, String.class, boolean.class },
+				driver, id, multi);
 	}
 
 	/**
@@ -79,10 +95,10 @@ public class Select2Model
 	public void clearSelection()
 	{
 		LOG.info("Clear selection in Select2 with id {}...", id);
-		while (!StringUtils.isEmpty(driver.findElement(selectSelector).getText().trim()))
+		while (!StringUtils.isEmpty(Waits.find(driver, selectSelector).getText().trim()))
 		{
 			// FIXME It is not working for non multi select2.
-			driver.findElement(closeButtonSelector).click();
+			Waits.find(driver, closeButtonSelector).click();
 		}
 		LOG.debug("Selection is empty.");
 	}
@@ -118,11 +134,11 @@ public class Select2Model
 			if (entry.getKey().isEmpty() || entry.getValue().isEmpty()) continue;
 
 			LOG.debug("Click select.");
-			WebElement select2Option = driver.findElement(selectedOptionSelector);
+			WebElement select2Option = Waits.find(driver, selectedOptionSelector);
 			select2Option.click();
 
 			LOG.debug("Wait for text input box...");
-			WebElement select2InputText = driver.findElement(By
+			WebElement select2InputText = Waits.find(driver, By
 					.cssSelector(multi ? "#s2id_" + id + " input" : "#select2-drop input"));
 
 			LOG.debug("Empty text input box..");
@@ -131,14 +147,14 @@ public class Select2Model
 			LOG.debug("Text input box empty. Entering term...");
 			select2InputText.sendKeys(entry.getKey());
 
-			WebElement match = driver.findElement(By
+			WebElement match = Waits.find(driver, By
 					.xpath("//div[contains(@class,'select2-result-label')][normalize-space(.)='" + entry.getKey()
 							+ "']"));
 			LOG.debug("Click match..");
 			match.click();
 
 			LOG.debug("Waiting for selection to appear in the list of search choices...");
-			tenSecondWait.until(webDriver -> textToBePresentInElementLocated(
+			WaitTimings.until(tenSecondWait, "selection shown", textToBePresentInElementLocated(
 					multi ? By.xpath("//div[@id='s2id_" + id + "']") : selectedOptionSelector, entry.getValue()));
 
 			LOG.debug("Selected '{}'.", entry);
@@ -161,7 +177,7 @@ public class Select2Model
 			if (entry.getKey().isEmpty() || entry.getValue().isEmpty()) continue;
 
 			LOG.debug("Click select.");
-			driver.findElement(selectedOptionSelector).click();
+			Waits.find(driver, selectedOptionSelector).click();
 
 			By select2InputTextBy = By.cssSelector(multi ? "#s2id_" + id + " input" : "#select2-drop input");
 
@@ -187,7 +203,7 @@ public class Select2Model
 		{
 			try
 			{
-				Thread.sleep(1000);
+				WaitTimings.sleep(1000, "select2 results");
 			}
 			catch (InterruptedException e1)
 			{
@@ -224,10 +240,10 @@ public class Select2Model
 		{
 			try
 			{
-				WebDriverWait wait = new WebDriverWait(driver, 5);
+				AdaptiveWait<WebDriver> wait = Waits.waitFor(driver, 5);
 
 				LOG.debug("Wait for text input box...");
-				WebElement select2InputText = driver.findElement(by);
+				WebElement select2InputText = Waits.find(driver, by);
 
 				LOG.debug("Empty text input box..");
 				select2InputText.clear();
@@ -235,10 +251,15 @@ public class Select2Model
 				LOG.debug("Text input box empty. Entering term...");
 				select2InputText.sendKeys(value);
 
-				wait.until(webDriver -> ExpectedConditions.textToBePresentInElementValue(by, value));
+				WaitTimings.until(wait, "search term typed",
+						ExpectedConditions.textToBePresentInElementValue(by, value));
 				result = true;
 				break;
 			}
+			catch (BudgetExceededException spent)
+			{
+				throw spent;
+			}
 			catch (TimeoutException te)
 			{
 				count++;
@@ -1,29 +1,69 @@
 package org.molgenis.selenium.model.component;
 
-import static java.util.Arrays.asList;
-import static org.openqa.selenium.support.ui.ExpectedConditions.not;
+import static org.openqa.selenium.support.ui.ExpectedConditions.invisibilityOf;
 import static org.openqa.selenium.support.ui.ExpectedConditions.visibilityOf;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
-import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.AdaptiveWait;
+import org.molgenis.selenium.model.TestBudget;
+import org.molgenis.selenium.model.TestBudget.BudgetExceededException;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.openqa.selenium.ElementNotVisibleException;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoSuchElementException;
-import org.openqa.selenium.NotFoundException;
 import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.Wait;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Stopwatch;
 
+/**
+ * Waits for the spinner of MOLGENIS to be gone.
+ *
+ * In {@link Mode#POLLING} mode a wait lasts until the spinner did not show for one full second. In
+ * {@link Mode#OBSERVER} mode a MutationObserver in the page records when the spinner shows and hides, and a wait polls
+ * that record until the spinner has been hidden for {@link #QUIET_MILLIS_PROPERTY} milliseconds.
+ */
 public class SpinnerModel
 {
+	public static final String MODE_PROPERTY = "molgenis.selenium.spinner";
+	public static final String QUIET_MILLIS_PROPERTY = "molgenis.selenium.spinner.quiet";
+
+	public static enum Mode
+	{
+		POLLING, OBSERVER;
+	}
+
 	private static final int SPINNER_APPEAR_TIMEOUT = 1;
+	private static final long OBSERVER_POLL_MILLIS = 20;
+
+	/**
+	 * Installs the observer unless the page has it already, and returns whether the spinner is visible and for how many
+	 * milliseconds it has been like that. The observer watches the whole body, because the spinner is shown and hidden
+	 * through the classes and styles of its ancestors too, and it may not exist yet.
+	 */
+	private static final String OBSERVE_SPINNER = "var state = window.molgenisSpinnerState;"
+			+ "if (!state) {"
+			+ "  state = window.molgenisSpinnerState = { visible: false, since: Date.now(), changes: 0 };"
+			+ "  var update = function() {"
+			+ "    var spinner = document.getElementById('spinner');"
+			+ "    var visible = !!spinner && spinner.getClientRects().length > 0"
+			+ "        && window.getComputedStyle(spinner).visibility !== 'hidden';"
+			+ "    if (visible !== state.visible) {"
+			+ "      state.visible = visible; state.since = Date.now(); state.changes++;"
+			+ "    }"
+			+ "  };"
+			+ "  new MutationObserver(update).observe(document.body || document.documentElement,"
+			+ "      { childList: true, subtree: true, attributes: true, attributeFilter: ['class', 'style'] });"
+			+ "  update();"
+			+ "}"
+			+ "return [state.visible, Date.now() - state.since, state.changes];";
 
 	private static final Logger LOG = LoggerFactory.getLogger(SpinnerModel.class);
 
@@ -38,32 +78,98 @@ public class SpinnerModel
 	}
 
 	/**
-	 * Waits for a certain amount of seconds for a period of one full second without spinner.
+	 * Returns the mode configured in the system property {@link #MODE_PROPERTY}, {@link Mode#POLLING} by default.
+	 */
+	public static Mode getMode()
+	{
+		return Mode.valueOf(System.getProperty(MODE_PROPERTY, Mode.POLLING.name()).toUpperCase());
+	}
+
+	/**
+	 * Waits for a certain amount of seconds for a period without spinner: one full second, or in
+	 * {@link Mode#OBSERVER} mode the quiet period of {@link #QUIET_MILLIS_PROPERTY}. Waits no longer than the
+	 * {@link TestBudget} of the test allows.
 	 */
 	public SpinnerModel waitTillDone(long timeout, TimeUnit unit)
+	{
+		long timeoutMillis = TestBudget.limit(unit.toMillis(timeout));
+		if (getMode() == Mode.OBSERVER)
+		{
+			return WaitTimings.time("spinner done", () -> observeTillDone(timeoutMillis));
+		}
+		return WaitTimings.time("spinner done", () -> {
+			try
+			{
+				LOG.info("Wait for spinner...");
+				Stopwatch sw = Stopwatch.createStarted();
+				noExplicitWait();
+				internalWaitTillDone(TimeUnit.MILLISECONDS.toSeconds(timeoutMillis + 999), sw);
+				return this;
+			}
+			finally
+			{
+				restoreImplicitWait();
+			}
+		});
+	}
+
+	/**
+	 * Polls the observer in the page until the spinner has been hidden for the quiet period. The quiet period starts no
+	 * earlier than this call, so that a spinner that the action before it shows a little later is not missed.
+	 */
+	private SpinnerModel observeTillDone(long timeoutMillis)
+	{
+		long quietMillis = Long.getLong(QUIET_MILLIS_PROPERTY, 200);
+		LOG.info("Wait for spinner, observed...");
+		Stopwatch sw = Stopwatch.createStarted();
+		while (true)
+		{
+			List<?> state = (List<?>) ((JavascriptExecutor) driver).executeScript(OBSERVE_SPINNER);
+			boolean visible = (Boolean) state.get(0);
+			long unchangedMillis = Math.min(((Number) state.get(1)).longValue(), sw.elapsed(TimeUnit.MILLISECONDS));
+			if (!visible && unchangedMillis >= quietMillis)
+			{
+				LOG.info("Done after {} ms, {} spinner changes on this page.", sw.elapsed(TimeUnit.MILLISECONDS),
+						state.get(2));
+				return this;
+			}
+			if (sw.elapsed(TimeUnit.MILLISECONDS) > timeoutMillis)
+			{
+				throw TestBudget.onTimeout(new TimeoutException("Spinner did not stop showing for "
+						+ TimeUnit.MILLISECONDS.toSeconds(timeoutMillis) + " seconds."), "spinner done");
+			}
+			sleep(visible ? OBSERVER_POLL_MILLIS : Math.min(OBSERVER_POLL_MILLIS, quietMillis - unchangedMillis));
+		}
+	}
+
+	private static void sleep(long millis)
 	{
 		try
 		{
-			LOG.info("Wait for spinner...");
-			Stopwatch sw = Stopwatch.createStarted();
-			noExplicitWait();
-			internalWaitTillDone(unit.toSeconds(timeout), sw);
-			return this;
+			Thread.sleep(Math.max(millis, 1));
 		}
-		finally
+		catch (InterruptedException e)
 		{
-			restoreImplicitWait();
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the spinner", e);
 		}
 	}
 
 	private void restoreImplicitWait()
 	{
-		driver.manage().timeouts().implicitlyWait(AbstractModel.IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS);
+		if (!Waits.isExplicit())
+		{
+			driver.manage().timeouts().implicitlyWait(Waits.getImplicitWaitMillis(), TimeUnit.MILLISECONDS);
+		}
 	}
 
 	private void noExplicitWait()
 	{
-		driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+		// in explicit mode the implicit wait is already 0
+		if (!Waits.isExplicit())
+		{
+			driver.manage().timeouts().implicitlyWait(0, TimeUnit.SECONDS);
+		}
 	}
 
 	/**
@@ -96,7 +202,8 @@ public class SpinnerModel
 		long timeOutInSeconds = timeout - sw.elapsed(TimeUnit.SECONDS);
 		if (timeOutInSeconds <= 0)
 		{
-			throw new TimeoutException("Spinner did not stop showing for " + timeout + " seconds.");
+			throw TestBudget.onTimeout(
+					new TimeoutException("Spinner did not stop showing for " + timeout + " seconds."), "spinner done");
 		}
 		return timeOutInSeconds;
 	}
@@ -110,9 +217,9 @@ public class SpinnerModel
 	private void waitForSpinnerToHide(long timeOutInSeconds)
 	{
 		LOG.debug("Spinner showing. Wait {} more seconds for spinner to hide...", timeOutInSeconds);
-		Wait<WebDriver> spinnerWait = new WebDriverWait(driver, timeOutInSeconds).ignoreAll(
-				asList(NotFoundException.class, ElementNotVisibleException.class, NoSuchElementException.class));
-		spinnerWait.until(webDriver -> not(visibilityOf(spinner)));
+		AdaptiveWait<WebDriver> spinnerWait = Waits.waitFor(driver, timeOutInSeconds)
+				.ignoring(ElementNotVisibleException.class, NoSuchElementException.class);
+		spinnerWait.until(invisibilityOf(spinner));
 		LOG.debug("Spinner hidden.");
 	}
 
@@ -124,15 +231,18 @@ public class SpinnerModel
 	 */
 	private boolean waitForSpinnerToAppear(int seconds)
 	{
-		Wait<WebDriver> secondWait = new WebDriverWait(driver, seconds).ignoring(NotFoundException.class,
-				ElementNotVisibleException.class);
+		AdaptiveWait<WebDriver> secondWait = Waits.waitFor(driver, seconds).ignoring(ElementNotVisibleException.class);
 		LOG.debug("Wait one second for the spinner to appear...");
 		try
 		{
 			// wait for the spinner to appear, this may take a while
-			secondWait.until(webDriver -> visibilityOf(spinner));
+			secondWait.until(visibilityOf(spinner));
 			return true;
 		}
+		catch (BudgetExceededException spent)
+		{
+			throw spent;
+		}
 		catch (TimeoutException expected)
 		{
 			LOG.info("Done.");
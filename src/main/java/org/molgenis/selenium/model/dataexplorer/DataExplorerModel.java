@@ -1,27 +1,37 @@
 package org.molgenis.selenium.model.dataexplorer;
 
 import static java.util.Optional.empty;
-import static java.util.stream.Collectors.toList;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.apache.http.NameValuePair;
 import org.apache.http.client.utils.URLEncodedUtils;
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.TestBudget;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.component.Select2Model;
 import org.molgenis.selenium.model.dataexplorer.annotators.AnnotatorModel;
 import org.molgenis.selenium.model.dataexplorer.data.DataModel;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -32,6 +42,27 @@ public class DataExplorerModel extends AbstractModel
 {
 	private static final Logger LOG = LoggerFactory.getLogger(DataExplorerModel.class);
 
+	/**
+	 * Returns the number of rows in the table body and an FNV-1a hash of its text, or null if there is no table.
+	 */
+	private static final String TABLE_FINGERPRINT = "var body = "
+			+ "document.querySelector('.molgenis-table-container tbody');"
+			+ "if (!body) { return null; }"
+			+ "var text = body.textContent, hash = 0x811c9dc5;"
+			+ "for (var i = 0; i < text.length; i++) {"
+			+ "  hash = Math.imul(hash ^ text.charCodeAt(i), 0x01000193) >>> 0;"
+			+ "}"
+			+ "return body.rows.length + ':' + hash;";
+
+	/**
+	 * Returns the label of the active page of the pager below the table, or null if there is none.
+	 */
+	private static final String ACTIVE_PAGE = "var next = document.querySelector('.page-next');"
+			+ "var active = next && next.parentNode.querySelector('li.active');"
+			+ "return active ? active.textContent.trim() : null;";
+
+	private static final By NEXT_PAGE = By.cssSelector(".page-next:not(.disabled) a");
+
 	public static enum DeleteOption
 	{
 		DATA, DATA_AND_METADATA;
@@ -81,7 +112,7 @@ public class DataExplorerModel extends AbstractModel
 	public DataExplorerModel(WebDriver driver)
 	{
 		super(driver);
-		entityModel = new Select2Model(driver, "dataset-select", false);
+		entityModel = Select2Model.create(driver, "dataset-select", false);
 	}
 
 	public void deleteEntity(DeleteOption deleteOption)
@@ -134,7 +165,7 @@ public class DataExplorerModel extends AbstractModel
 		LOG.info("Select annotator tab...");
 		annotatorTab.click();
 		spinner().waitTillDone(10, TimeUnit.SECONDS);
-		return PageFactory.initElements(driver, AnnotatorModel.class);
+		return Waits.initElements(driver, AnnotatorModel.class);
 	}
 
 	public DataModel selectDataTab()
@@ -142,7 +173,7 @@ public class DataExplorerModel extends AbstractModel
 		LOG.info("Select data tab...");
 		dataTab.click();
 		spinner().waitTillDone(10, TimeUnit.SECONDS);
-		return PageFactory.initElements(driver, DataModel.class);
+		return Waits.initElements(driver, DataModel.class);
 	}
 
 	public DataExplorerModel deselectAll()
@@ -160,7 +191,7 @@ public class DataExplorerModel extends AbstractModel
 	public DataExplorerModel clickAttribute(String attributeName)
 	{
 		LOG.info("Click on attribute: " + attributeName);
-		driver.findElement(
+		Waits.find(driver,
 				By.xpath("//div[@class='molgenis-tree']//li[span/span/text()='" + attributeName
 						+ "']/span/span[@class='fancytree-checkbox']")).click();
 		return this;
@@ -172,11 +203,37 @@ public class DataExplorerModel extends AbstractModel
 	public List<List<String>> getTableData()
 	{
 		LOG.info("getTableData...");
-		List<List<String>> result = getTableData(tableRows).stream().map(l -> l.subList(3, l.size())).collect(toList());
+		List<List<String>> result = getTableData(tableRows, 3);
 		LOG.debug("getTableData result={}", result);
 		return result;
 	}
 
+	/**
+	 * Streams the table data of the current page and the pages after it, row by row, with the first three columns
+	 * skipped. The next page is requested through the pager only when the stream has used up the rows of the current
+	 * one, so only one page is held in memory and a stream that is not read to the end leaves the pager where it
+	 * stopped. After paging forward, the next page counts as shown when the pager marks another page active and the
+	 * network is idle, so that two pages with the same content are told apart. A page is read again until its
+	 * fingerprint stays the same, for at most 30 seconds.
+	 */
+	public Stream<List<String>> streamTableData()
+	{
+		LOG.info("streamTableData...");
+		return StreamSupport.stream(
+				Spliterators.spliteratorUnknownSize(new PageIterator(), Spliterator.ORDERED | Spliterator.NONNULL),
+				false);
+	}
+
+	private String getTableFingerprint()
+	{
+		return (String) ((JavascriptExecutor) driver).executeScript(TABLE_FINGERPRINT);
+	}
+
+	private String getActivePage()
+	{
+		return (String) ((JavascriptExecutor) driver).executeScript(ACTIVE_PAGE);
+	}
+
 	/**
 	 * Returns the fully qualified name of the currently displayed entity, based on the driver's URL.
 	 */
@@ -198,19 +255,104 @@ public class DataExplorerModel extends AbstractModel
 	{
 		LOG.info("Start copy");
 
-		WebDriverWait wait = new WebDriverWait(driver, 60);
-		wait.until(ExpectedConditions.visibilityOf(copyCheckBtn));
+		WaitTimings.until(Waits.waitFor(driver, 60), "copy button visible",
+				ExpectedConditions.visibilityOf(copyCheckBtn));
 		copyCheckBtn.click();
 
-		WebElement input = driver.findElement(By.cssSelector("input.bootbox-input"));
+		WebElement input = Waits.find(driver, By.cssSelector("input.bootbox-input"));
 		input.clear();
 		input.sendKeys(newEntityName);
 
-		WebElement okBtn = driver.findElement(By.cssSelector("div.bootbox .modal-footer button.btn-primary"));
+		WebElement okBtn = Waits.find(driver, By.cssSelector("div.bootbox .modal-footer button.btn-primary"));
+		trackNetwork();
 		okBtn.click();
-		spinner().waitTillDone(10, TimeUnit.SECONDS);
+		waitForNetworkIdle(NETWORK_QUIET_MILLIS, deadline(10, TimeUnit.SECONDS));
 
 		LOG.info("Finished copy");
 		return this;
 	}
+
+	/**
+	 * Iterates over the rows of the table page by page, holding the rows of one page.
+	 */
+	private class PageIterator implements Iterator<List<String>>
+	{
+		private Iterator<List<String>> rows = Collections.emptyIterator();
+		private String fingerprint;
+		private int pages;
+		private boolean lastPage;
+
+		@Override
+		public boolean hasNext()
+		{
+			while (!rows.hasNext())
+			{
+				if (lastPage)
+				{
+					return false;
+				}
+				if (!nextPage())
+				{
+					LOG.info("Streamed {} pages.", pages);
+					lastPage = true;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		public List<String> next()
+		{
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			return rows.next();
+		}
+
+		/**
+		 * Reads the current page the first time, and after that pages forward and reads the page once it is shown.
+		 *
+		 * @return false if there is no next page
+		 */
+		private boolean nextPage()
+		{
+			if (pages > 0)
+			{
+				if (Waits.isAbsent(driver, null, NEXT_PAGE))
+				{
+					return false;
+				}
+				String previousPage = getActivePage();
+				String previous = fingerprint;
+				trackNetwork();
+				DataExplorerModel.this.next();
+				// without a pager to ask, only a change of the content shows the next page
+				WaitTimings.until(Waits.waitFor(driver, 30), "next page selected",
+						webDriver -> previousPage != null ? !previousPage.equals(getActivePage())
+								: !Objects.equals(previous, getTableFingerprint()));
+				waitForNetworkIdle(NETWORK_QUIET_MILLIS, deadline(30, TimeUnit.SECONDS));
+			}
+			long deadline = deadline(30, TimeUnit.SECONDS);
+			fingerprint = WaitTimings.until(Waits.waitFor(driver, 30), "table shown",
+					webDriver -> getTableFingerprint());
+			List<List<String>> page = getTableData(tableRows, 3);
+			// the table may have changed while it was read
+			for (String current = getTableFingerprint(); !Objects.equals(fingerprint, current);
+					current = getTableFingerprint())
+			{
+				if (System.currentTimeMillis() > deadline)
+				{
+					throw TestBudget.onTimeout(
+							new TimeoutException("Table of page " + (pages + 1) + " kept changing while it was read"),
+							"table stable");
+				}
+				fingerprint = current;
+				page = getTableData(tableRows, 3);
+			}
+			pages++;
+			rows = page.iterator();
+			return true;
+		}
+	}
 }
@@ -5,15 +5,15 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.dataexplorer.DataExplorerModel;
 import org.molgenis.selenium.model.dataexplorer.data.DataModel;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -52,12 +52,13 @@ public class AnnotatorModel extends AbstractModel
 		LOG.info("Select Data tab...");
 		dataTab.click();
 		spinner().waitTillDone(10, TimeUnit.SECONDS);
-		return PageFactory.initElements(driver, DataExplorerModel.class);
+		return Waits.initElements(driver, DataExplorerModel.class);
 	}
 
 	private void waitForAnnotators()
 	{
-		new WebDriverWait(driver, 10).until(webDriver -> ExpectedConditions.visibilityOf(enabledAnnotatorSelectionContainer));
+		WaitTimings.until(Waits.waitFor(driver, 10), "annotators visible",
+				ExpectedConditions.visibilityOf(enabledAnnotatorSelectionContainer));
 	}
 
 	public AnnotatorModel select(String annotator)
@@ -102,7 +103,7 @@ public class AnnotatorModel extends AbstractModel
 
 	private WebElement findAnnotatorCheckbox(String annotator)
 	{
-		return driver.findElement(By.cssSelector("#annotator-select-container input[value=" + annotator + "]"));
+		return Waits.find(driver, By.cssSelector("#annotator-select-container input[value=" + annotator + "]"));
 	}
 
 	public List<String> getSelectedAnnotators()
@@ -123,17 +124,17 @@ public class AnnotatorModel extends AbstractModel
 	{
 		annotateButton.click();
 
-		DataModel dataModel = PageFactory.initElements(driver, DataModel.class);
+		DataModel dataModel = Waits.initElements(driver, DataModel.class);
 		dataModel.waitUntilReady(timeout);
 
-		return PageFactory.initElements(driver, DataExplorerModel.class);
+		return Waits.initElements(driver, DataExplorerModel.class);
 	}
 
 	public AnnotatorModel clickCopy(String entityName, String newEntityName)
 	{
 		LOG.info("Copy [" + entityName + "] and create [" + newEntityName + "]");
 		selectDataTab().selectEntity(entityName);
-		DataExplorerModel dataExplorerModel = PageFactory.initElements(driver, DataExplorerModel.class);
+		DataExplorerModel dataExplorerModel = Waits.initElements(driver, DataExplorerModel.class);
 		dataExplorerModel.copyEntity(newEntityName);
 		return this;
 	}
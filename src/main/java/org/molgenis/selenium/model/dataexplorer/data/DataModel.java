@@ -4,14 +4,14 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.component.SpinnerModel;
 import org.molgenis.selenium.model.forms.FormsModalModel;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,7 +38,7 @@ public class DataModel extends AbstractModel
 		LOG.info("click on add row button for entity TypeTest...");
 		this.addRowButton.click();
 		spinner().waitTillDone(10, TimeUnit.SECONDS);
-		return PageFactory.initElements(driver, FormsModalModel.class).waitForModal();
+		return Waits.initElements(driver, FormsModalModel.class).waitForModal();
 	}
 
 	public FormsModalModel clickOnEditFirstRowButton()
@@ -46,7 +46,7 @@ public class DataModel extends AbstractModel
 		LOG.info("click on edit first row button for entity TypeTest...");
 		this.editRowButton.get(0).click();
 		spinner().waitTillDone(IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS);
-		return PageFactory.initElements(driver, FormsModalModel.class).waitForModal();
+		return Waits.initElements(driver, FormsModalModel.class).waitForModal();
 	}
 
 	/**
@@ -59,8 +59,8 @@ public class DataModel extends AbstractModel
 
 	public DataModel waitUntilReady(int timeout)
 	{
-		WebDriverWait wait = new WebDriverWait(driver, timeout);
-		wait.until(ExpectedConditions.visibilityOf(addRowButton));
+		WaitTimings.until(Waits.waitFor(driver, timeout), "add row button visible",
+				ExpectedConditions.visibilityOf(addRowButton));
 		return this;
 	}
 
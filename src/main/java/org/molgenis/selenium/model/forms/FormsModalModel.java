@@ -3,14 +3,14 @@ package org.molgenis.selenium.model.forms;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.dataexplorer.data.DataModel;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,7 +49,7 @@ public class FormsModalModel extends AbstractModel
 		this.eyeButton.click();
 		spinner().waitTillDone(AbstractModel.IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS);
 		LOG.info("clicked on the modal eye button");
-		return PageFactory.initElements(driver, FormsModalModel.class);
+		return Waits.initElements(driver, FormsModalModel.class);
 	}
 
 	public DataModel clickOnSaveChangesButton()
@@ -58,11 +58,11 @@ public class FormsModalModel extends AbstractModel
 		if (FormsUtils.formHasErrors(driver, null))
 		{
 			throw new RuntimeException(
-					"Form has errors: " + driver.findElement(By.cssSelector(".has-error")).getText());
+					"Form has errors: " + Waits.find(driver, By.cssSelector(".has-error")).getText());
 		}
 		saveChangesButton.click();
 		waitUntilModalFormClosed();
-		return PageFactory.initElements(driver, DataModel.class);
+		return Waits.initElements(driver, DataModel.class);
 	}
 
 	public DataModel clickOnCreateButton()
@@ -71,11 +71,11 @@ public class FormsModalModel extends AbstractModel
 		if (FormsUtils.formHasErrors(driver, null))
 		{
 			throw new RuntimeException(
-					"Form has errors: " + driver.findElement(By.cssSelector(".has-error")).getText());
+					"Form has errors: " + Waits.find(driver, By.cssSelector(".has-error")).getText());
 		}
 		createButton.click();
 		waitUntilModalFormClosed();
-		return PageFactory.initElements(driver, DataModel.class);
+		return Waits.initElements(driver, DataModel.class);
 	}
 
 	public DataModel clickOnCancelButton()
@@ -83,14 +83,13 @@ public class FormsModalModel extends AbstractModel
 		LOG.info("click on cancel button...");
 		cancelButton.click();
 		waitUntilModalFormClosed();
-		return PageFactory.initElements(driver, DataModel.class);
+		return Waits.initElements(driver, DataModel.class);
 	}
 
 	private void waitUntilModalFormClosed()
 	{
-		WebDriverWait webDriverWait = new WebDriverWait(driver, 30);
-		webDriverWait.pollingEvery(100, TimeUnit.MILLISECONDS);
-		webDriverWait.until(webDriver -> AbstractModel.noElementFound(webDriver, null, modalBy));
+		WaitTimings.until(Waits.waitFor(driver, 30).withBackoff(10, 100), "modal closed",
+				webDriver -> Waits.isAbsent(webDriver, null, modalBy));
 	}
 
 	/**
@@ -112,8 +111,8 @@ public class FormsModalModel extends AbstractModel
 	public FormsModalModel waitForModal()
 	{
 		LOG.info("Wait for modal...");
-		new WebDriverWait(driver, IMPLICIT_WAIT_SECONDS)
-				.until(ExpectedConditions.presenceOfElementLocated(getModalBy()));
+		WaitTimings.until(Waits.waitFor(driver, IMPLICIT_WAIT_SECONDS), "modal present",
+				ExpectedConditions.presenceOfElementLocated(getModalBy()));
 		return this;
 	}
 }
@@ -9,6 +9,10 @@ import java.util.List;
 import java.util.Map;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.AdaptiveWait;
+import org.molgenis.selenium.model.TestBudget.BudgetExceededException;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.component.Select2Model;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Keys;
@@ -17,7 +21,6 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -36,11 +39,15 @@ public class FormsUtils
 	public static void changeValueNoncompoundAttributeUnsafe(WebDriver driver, By context, String simpleName,
 			String value)
 	{
-		WebElement input = driver.findElement(context).findElement(findAttributeInputBy(simpleName, false, true));
+		WebElement input = Waits.find(Waits.find(driver, context), findAttributeInputBy(simpleName, false, true));
 		try
 		{
 			typeTextIntoInput(driver, value, input);
 		}
+		catch (BudgetExceededException spent)
+		{
+			throw spent;
+		}
 		catch (Exception ex)
 		{
 			LOG.warn("Failed to enter text {} into input {}", value, simpleName);
@@ -55,14 +62,18 @@ public class FormsUtils
 		{
 			try
 			{
-				WebDriverWait wait = new WebDriverWait(driver, 5);
-				WebElement input = driver.findElement(context)
-						.findElement(findAttributeInputBy(simpleName, false, true));
+				AdaptiveWait<WebDriver> wait = Waits.waitFor(driver, 5);
+				WebElement input = Waits.find(Waits.find(driver, context),
+						findAttributeInputBy(simpleName, false, true));
 				typeTextIntoInput(driver, value, input);
-				wait.until(webDriver -> ExpectedConditions
+				WaitTimings.until(wait, "attribute value typed", ExpectedConditions
 						.textToBePresentInElementValue(findAttributeInputBy(simpleName, false, false), value));
 				break;
 			}
+			catch (BudgetExceededException spent)
+			{
+				throw spent;
+			}
 			catch (Exception ex)
 			{
 				LOG.error("Failed to enter text {} into input {}", value, simpleName);
@@ -73,7 +84,7 @@ public class FormsUtils
 
 	public static void sendKeysNoncompoundAttributeUnsafe(WebDriver driver, By context, String simpleName, String value)
 	{
-		driver.findElement(context).findElement(findAttributeInputBy(simpleName, false, true)).sendKeys(value);
+		Waits.find(Waits.find(driver, context), findAttributeInputBy(simpleName, false, true)).sendKeys(value);
 	}
 
 	public static void changeValueNoncompoundAttributeRadio(WebDriver driver, By context, String simpleName,
@@ -81,11 +92,11 @@ public class FormsUtils
 	{
 		String xpathContainer = createXPathAttributeContainerWebElement(simpleName, false, false);
 		LOG.info("Click on a radio element of attribute {} with value: '{}'...", simpleName, value);
-		driver.findElement(
+		Waits.find(driver,
 				By.xpath(xpathContainer + "//input[@name='" + simpleName + "'][@type='radio'][@value='" + value + "']"))
 				.click();
-		new WebDriverWait(driver, AbstractModel.IMPLICIT_WAIT_SECONDS).until(webDriver -> value
-				.equals(getValueNoncompoundAttributeRadio(driver, context, simpleName)));
+		WaitTimings.until(Waits.waitFor(driver, AbstractModel.IMPLICIT_WAIT_SECONDS), "radio value selected",
+				webDriver -> value.equals(getValueNoncompoundAttributeRadio(driver, context, simpleName)));
 	}
 
 	public static void typeValueNoncompoundAttributeAceEditor(WebDriver driver, By context, String simpleName,
@@ -93,7 +104,7 @@ public class FormsUtils
 	{
 		By textareaBy = By.xpath(".//textarea[@class='ace_text-input']");
 		WebElement attributeContainer = findAttributeContainerWebElement(driver, context, simpleName, false);
-		WebElement textarea = attributeContainer.findElement(textareaBy);
+		WebElement textarea = Waits.find(attributeContainer, textareaBy);
 		textarea.sendKeys(value);
 	}
 
@@ -102,20 +113,21 @@ public class FormsUtils
 	{
 		By textareaBy = By.cssSelector("textarea");
 		WebElement attributeContainer = findAttributeContainerWebElement(driver, context, simpleName, false);
-		WebElement textarea = attributeContainer.findElement(textareaBy);
+		WebElement textarea = Waits.find(attributeContainer, textareaBy);
 		textarea.clear();
 		textarea.sendKeys(value);
 	}
 
 	public static String getValueNoncompoundAttribute(WebDriver driver, By context, String simpleName)
 	{
-		return driver.findElement(findAttributeInputBy(simpleName, false, false)).getAttribute("value");
+		return Waits.find(driver, findAttributeInputBy(simpleName, false, false)).getAttribute("value");
 	}
 
 	public static String getValueNoncompoundAttributeRadio(WebDriver driver, By context, String simpleName)
 	{
 		WebElement attributeContainer = findAttributeContainerWebElement(driver, context, simpleName, false);
-		return attributeContainer.findElement(By.cssSelector("input[name='" + simpleName + "'][type='radio']:checked"))
+		return Waits
+				.find(attributeContainer, By.cssSelector("input[name='" + simpleName + "'][type='radio']:checked"))
 				.getAttribute("value");
 	}
 
@@ -123,21 +135,21 @@ public class FormsUtils
 			String simpleNamePartOf, String value)
 	{
 		WebElement attributeContainer = findAttributeContainerWebElement(driver, context, simpleName, true);
-		WebElement inputElement = attributeContainer
-				.findElement(By.xpath(".//input[@name='" + simpleNamePartOf + "']"));
+		WebElement inputElement = Waits.find(attributeContainer,
+				By.xpath(".//input[@name='" + simpleNamePartOf + "']"));
 		typeTextIntoInput(driver, value, inputElement);
 	}
 
 	private static void typeTextIntoInput(WebDriver driver, String value, WebElement inputElement)
 	{
 		LOG.info("Type {} into input...", value);
-		WebDriverWait wait = new WebDriverWait(driver, 10);
+		AdaptiveWait<WebDriver> wait = Waits.waitFor(driver, 10);
 		LOG.info("Clear element...");
 		inputElement.clear();
-		wait.until(webDriver -> isEmpty(inputElement.getAttribute("value")));
+		WaitTimings.until(wait, "input cleared", webDriver -> isEmpty(inputElement.getAttribute("value")));
 		LOG.info("Send value...");
 		inputElement.sendKeys(value);
-		wait.until(webDriver -> textToBePresentInElementValue(inputElement, value));
+		WaitTimings.until(wait, "input typed", textToBePresentInElementValue(inputElement, value));
 		LOG.info("Send TAB...");
 		inputElement.sendKeys(Keys.TAB);
 	}
@@ -148,7 +160,7 @@ public class FormsUtils
 	public static void focusOnElement(WebDriver driver, By context, String simpleName)
 	{
 		WebElement attributeContainer = findAttributeContainerWebElement(driver, context, simpleName, false);
-		WebElement inputElement = attributeContainer.findElement(By.xpath(".//input[@name='" + simpleName + "']"));
+		WebElement inputElement = Waits.find(attributeContainer, By.xpath(".//input[@name='" + simpleName + "']"));
 		new Actions(driver).moveToElement(inputElement).perform();
 	}
 
@@ -170,21 +182,21 @@ public class FormsUtils
 				e.click();
 			}
 		});
-		Arrays.asList(values).stream().filter(e -> !"".equals(e)).forEach(e -> container
-				.findElement(By.xpath(".//input[@name='" + simpleName + "'][@value='" + e + "']")).click());
+		Arrays.asList(values).stream().filter(e -> !"".equals(e)).forEach(e -> Waits
+				.find(container, By.xpath(".//input[@name='" + simpleName + "'][@value='" + e + "']")).click());
 	}
 
 	public static void clickDeselectAll(WebDriver driver, By context, String simpleName)
 	{
 		WebElement container = findAttributeContainerWebElement(driver, context, simpleName, false);
-		WebElement link = container.findElement(By.xpath(".//span[contains(text(), 'Deselect all')]/.."));
+		WebElement link = Waits.find(container, By.xpath(".//span[contains(text(), 'Deselect all')]/.."));
 		link.click();
 	}
 
 	public static void clickSelectAll(WebDriver driver, By context, String simpleName)
 	{
 		WebElement container = findAttributeContainerWebElement(driver, context, simpleName, false);
-		WebElement link = container.findElement(By.xpath(".//span[contains(text(), 'Select all')]/.."));
+		WebElement link = Waits.find(container, By.xpath(".//span[contains(text(), 'Select all')]/.."));
 		link.click();
 	}
 
@@ -198,8 +210,8 @@ public class FormsUtils
 			Map<String, String> idAndLabel, boolean clearOriginalValues)
 	{
 		WebElement container = findAttributeContainerWebElement(driver, context, simpleName, false);
-		Select2Model s2model = new Select2Model(driver,
-				container.findElement(By.cssSelector(".select2-container")).getAttribute("id"), true);
+		Select2Model s2model = Select2Model.create(driver,
+				Waits.find(container, By.cssSelector(".select2-container")).getAttribute("id"), true);
 
 		if (clearOriginalValues)
 		{
@@ -218,8 +230,8 @@ public class FormsUtils
 			Map<String, String> idAndLabel)
 	{
 		WebElement container = findAttributeContainerWebElement(driver, context, simpleName, false);
-		Select2Model s2model = new Select2Model(driver,
-				container.findElement(By.cssSelector(".select2-container")).getAttribute("id"), false);
+		Select2Model s2model = Select2Model.create(driver,
+				Waits.find(container, By.cssSelector(".select2-container")).getAttribute("id"), false);
 		s2model.selectReactForms(idAndLabel);
 	}
 
@@ -235,8 +247,8 @@ public class FormsUtils
 	public static WebElement findAttributeContainerWebElement(WebDriver driver, By context, String simpleName,
 			boolean isCompoundAttribute)
 	{
-		return driver.findElement(context)
-				.findElement(By.xpath(createXPathAttributeContainerWebElement(simpleName, isCompoundAttribute, true)));
+		return Waits.find(Waits.find(driver, context),
+				By.xpath(createXPathAttributeContainerWebElement(simpleName, isCompoundAttribute, true)));
 	}
 
 	public static String createXPathAttributeContainerWebElement(String simpleName, boolean isCompoundAttribute,
@@ -280,13 +292,13 @@ public class FormsUtils
 	{
 		try
 		{
-			new WebDriverWait(driver, AbstractModel.IMPLICIT_WAIT_SECONDS).until(webDriver -> webDriver
-					.findElement(container).getAttribute("textContent").contains(errorMessage));
+			WaitTimings.until(Waits.waitFor(driver, AbstractModel.IMPLICIT_WAIT_SECONDS), "error message shown",
+					webDriver -> webDriver.findElement(container).getAttribute("textContent").contains(errorMessage));
 		}
 		catch (TimeoutException ex)
 		{
 			LOG.error("Expected error message {} did not appear in element {}. Element text is:{}", errorMessage,
-					container, driver.findElement(container).getText());
+					container, Waits.find(driver, container).getText());
 			throw ex;
 		}
 	}
@@ -7,11 +7,12 @@ import java.io.File;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.AdaptiveWait;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.ui.Wait;
-import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,14 +83,14 @@ public class ImporterModel extends AbstractModel
 	@FindBy(css = "ol.bwizard-steps li:nth-child(5).active")
 	private WebElement stepFive;
 
-	private final Wait<WebDriver> oneMinuteWait;
-	private final Wait<WebDriver> fiveMinuteWait;
+	private final AdaptiveWait<WebDriver> oneMinuteWait;
+	private final AdaptiveWait<WebDriver> fiveMinuteWait;
 
 	public ImporterModel(WebDriver driver)
 	{
 		super(driver);
-		oneMinuteWait = new WebDriverWait(driver, 60);
-		fiveMinuteWait = new WebDriverWait(driver, TimeUnit.MINUTES.toSeconds(5));
+		oneMinuteWait = Waits.waitFor(driver, 60);
+		fiveMinuteWait = Waits.waitFor(driver, TimeUnit.MINUTES.toSeconds(5));
 	}
 
 	public static File getFile(String relativePath)
@@ -155,13 +156,13 @@ public class ImporterModel extends AbstractModel
 	{
 		LOG.info("finish()");
 		finishButton.click();
-		oneMinuteWait.until(webDriver -> visibilityOf(stepOne));
+		WaitTimings.until(oneMinuteWait, "step one visible", visibilityOf(stepOne));
 		return this;
 	}
 
 	public ImporterModel selectEntityName(String entityName)
 	{
-		oneMinuteWait.until(webDriver -> visibilityOf(stepTwo));
+		WaitTimings.until(oneMinuteWait, "step two visible", visibilityOf(stepTwo));
 		entityNameInput.clear();
 		entityNameInput.sendKeys(entityName);
 		nextButton.click();
@@ -171,7 +172,7 @@ public class ImporterModel extends AbstractModel
 	public ImporterModel selectOptions(EntitiesOptions options)
 	{
 		LOG.info("selectOptions {}...", options);
-		oneMinuteWait.until(webDriver -> visibilityOf(stepTwo));
+		WaitTimings.until(oneMinuteWait, "step two visible", visibilityOf(stepTwo));
 		switch (options)
 		{
 			case ADD:
@@ -191,7 +192,7 @@ public class ImporterModel extends AbstractModel
 	public ImporterModel selectBasePackage()
 	{
 		LOG.info("selectBasePackage...");
-		oneMinuteWait.until(webDriver -> visibilityOf(stepThree));
+		WaitTimings.until(oneMinuteWait, "step three visible", visibilityOf(stepThree));
 		basePackageRadioButton.click();
 		nextButton.click();
 		return this;
@@ -200,7 +201,7 @@ public class ImporterModel extends AbstractModel
 	public ImporterModel validate()
 	{
 		LOG.info("validate...");
-		oneMinuteWait.until(webDriver -> visibilityOf(stepFour));
+		WaitTimings.until(oneMinuteWait, "step four visible", visibilityOf(stepFour));
 		nextButton.click();
 		return this;
 	}
@@ -208,8 +209,8 @@ public class ImporterModel extends AbstractModel
 	public ImporterModel waitForResult()
 	{
 		LOG.info("waitForResult...");
-		oneMinuteWait.until(webDriver -> visibilityOf(stepFive));
-		fiveMinuteWait.until(this::importFinished);
+		WaitTimings.until(oneMinuteWait, "step five visible", visibilityOf(stepFive));
+		WaitTimings.until(fiveMinuteWait, "import finished", this::importFinished);
 		return this;
 	}
 
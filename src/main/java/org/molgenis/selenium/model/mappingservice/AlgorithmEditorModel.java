@@ -1,10 +1,10 @@
 package org.molgenis.selenium.model.mappingservice;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.Waits;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -34,6 +34,6 @@ public class AlgorithmEditorModel extends AbstractModel
 	public MappingProjectDetailsModel cancelAndGoBack()
 	{
 		cancelAndGoBackButton.click();
-		return PageFactory.initElements(driver, MappingProjectDetailsModel.class);
+		return Waits.initElements(driver, MappingProjectDetailsModel.class);
 	}
 }
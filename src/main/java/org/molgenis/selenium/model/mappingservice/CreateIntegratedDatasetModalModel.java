@@ -1,11 +1,11 @@
 package org.molgenis.selenium.model.mappingservice;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.dataexplorer.DataExplorerModel;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 /**
  * Model for the "Create integrated dataset" popup in the MappingProjectDetail view.
@@ -33,7 +33,7 @@ public class CreateIntegratedDatasetModalModel extends AbstractModel
 	public DataExplorerModel createIntegratedDataset()
 	{
 		createIntegratedEntityButton.click();
-		return PageFactory.initElements(driver, DataExplorerModel.class);
+		return Waits.initElements(driver, DataExplorerModel.class);
 	}
 
 }
@@ -4,13 +4,13 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.component.Select2Model;
 import org.molgenis.selenium.model.dataexplorer.DataExplorerModel;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -44,21 +44,22 @@ public class MappingProjectDetailsModel extends AbstractModel
 	public MappingProjectDetailsModel(WebDriver driver)
 	{
 		super(driver);
-		sourceEntitySelect = new Select2Model(driver, "source-entity-select", false);
+		sourceEntitySelect = Select2Model.create(driver, "source-entity-select", false);
 	}
 
 	public MappingProjectsModel backToMappingProjectsOverview()
 	{
 		backToMappingProjectOverviewButton.click();
-		return PageFactory.initElements(driver, MappingProjectsModel.class);
+		return Waits.initElements(driver, MappingProjectsModel.class);
 	}
 
 	public MappingProjectDetailsModel addSource(String sourceEntityName)
 	{
 		addSourceButton.click();
 		sourceEntitySelect.select(sourceEntityName);
+		trackNetwork();
 		submitNewSourceColumnButton.click();
-		spinner().waitTillDone(30, TimeUnit.SECONDS);
+		waitForNetworkIdle(NETWORK_QUIET_MILLIS, deadline(30, TimeUnit.SECONDS));
 		return this;
 	}
 
@@ -66,7 +67,7 @@ public class MappingProjectDetailsModel extends AbstractModel
 	{
 		LOG.info("Create integrated dataset. Entity name = {}", entityName);
 		createIntegratedDatasetModalButton.click();
-		return PageFactory.initElements(driver, CreateIntegratedDatasetModalModel.class).setEntityName(entityName)
+		return Waits.initElements(driver, CreateIntegratedDatasetModalModel.class).setEntityName(entityName)
 				.createIntegratedDataset();
 	}
 
@@ -75,8 +76,8 @@ public class MappingProjectDetailsModel extends AbstractModel
 		By editButtonSelector = By.xpath("//form[@action='/menu/dataintegration/mappingservice/attributeMapping']"
 				+ "[input[@name='targetAttribute'][@value='" + attributeName + "']]" + "[input[@name='source'][@value='"
 				+ sourceEntityName + "']]/button");
-		driver.findElement(editButtonSelector).click();
-		return PageFactory.initElements(driver, AlgorithmEditorModel.class);
+		Waits.find(driver, editButtonSelector).click();
+		return Waits.initElements(driver, AlgorithmEditorModel.class);
 	}
 
 	public MappingProjectDetailsModel removeAttributeMapping(String sourceEntityName, String attributeName)
@@ -85,7 +86,7 @@ public class MappingProjectDetailsModel extends AbstractModel
 				.xpath("//form[@action='/menu/dataintegration/mappingservice/removeAttributeMapping']"
 						+ "[input[@name='attribute'][@value='" + attributeName + "']]"
 						+ "[input[@name='source'][@value='" + sourceEntityName + "']]/button");
-		driver.findElement(removeButtonSelector).click();
+		Waits.find(driver, removeButtonSelector).click();
 		okButton.click();
 		return this;
 	}
@@ -4,12 +4,12 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.component.Select2Model;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
 public class MappingProjectsModel extends AbstractModel
 {
@@ -39,7 +39,7 @@ public class MappingProjectsModel extends AbstractModel
 	public MappingProjectsModel(WebDriver driver)
 	{
 		super(driver);
-		targetEntitySelect = new Select2Model(driver, "target-entity-select", false);
+		targetEntitySelect = Select2Model.create(driver, "target-entity-select", false);
 	}
 
 	public MappingProjectDetailsModel addNewMappingProject(String name, String targetEntity)
@@ -48,7 +48,7 @@ public class MappingProjectsModel extends AbstractModel
 		mappingProjectTextFieldName.sendKeys(name);
 		targetEntitySelect.select(targetEntity);
 		submitNewMappingProjectButton.click();
-		return PageFactory.initElements(driver, MappingProjectDetailsModel.class);
+		return Waits.initElements(driver, MappingProjectDetailsModel.class);
 	}
 
 	public List<List<String>> getMappingProjectsTable()
@@ -58,16 +58,16 @@ public class MappingProjectsModel extends AbstractModel
 
 	public MappingProjectsModel copyMappingProject(String projectName)
 	{
-		WebElement toMappingProjectDetailsLink = driver.findElement(By.linkText(projectName));
-		WebElement cloneButton = toMappingProjectDetailsLink.findElement(CLONE_BUTTON_SELECTOR);
+		WebElement toMappingProjectDetailsLink = Waits.find(driver, By.linkText(projectName));
+		WebElement cloneButton = Waits.find(toMappingProjectDetailsLink, CLONE_BUTTON_SELECTOR);
 		cloneButton.click();
 		return this;
 	}
 
 	public MappingProjectsModel deleteMappingProject(String projectName)
 	{
-		WebElement toMappingProjectDetailsLink = driver.findElement(By.linkText(projectName));
-		WebElement deleteButton = toMappingProjectDetailsLink.findElement(DELETE_BUTTON_SELECTOR);
+		WebElement toMappingProjectDetailsLink = Waits.find(driver, By.linkText(projectName));
+		WebElement deleteButton = Waits.find(toMappingProjectDetailsLink, DELETE_BUTTON_SELECTOR);
 		deleteButton.click();
 		okButton.click();
 		spinner().waitTillDone(30, TimeUnit.SECONDS);
@@ -7,6 +7,7 @@ import java.util.NoSuchElementException;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.model.component.Select2Model;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
@@ -46,9 +47,9 @@ public class TagWizardModel extends AbstractModel
 	public TagWizardModel(WebDriver driver)
 	{
 		super(driver);
-		tagSelectionModel = new Select2Model(driver, "tag-dropdown", true);
-		ontologySelectionModel = new Select2Model(driver, "ontology-select", true);
-		entitySelectionModel = new Select2Model(driver, "select-target", false);
+		tagSelectionModel = Select2Model.create(driver, "tag-dropdown", true);
+		ontologySelectionModel = Select2Model.create(driver, "ontology-select", true);
+		entitySelectionModel = Select2Model.create(driver, "select-target", false);
 	}
 
 	public TagWizardModel selectEntity(String name)
@@ -90,12 +91,13 @@ public class TagWizardModel extends AbstractModel
 	{
 		LOG.info("tag attribute {} with terms {}", attributeName, asList(terms));
 		int rowIndex = findTableRowIndexForAttribute(attributeName);
-		WebElement editButton = driver
-				.findElement(By.xpath("//table[@id='tag-mapping-table']/tbody/tr[" + rowIndex + "]/td[3]/button"));
+		WebElement editButton = Waits.find(driver,
+				By.xpath("//table[@id='tag-mapping-table']/tbody/tr[" + rowIndex + "]/td[3]/button"));
 		editButton.click();
 		tagSelectionModel.select(terms);
+		trackNetwork();
 		saveTagSelectionButton.click();
-		spinner().waitTillDone(30, TimeUnit.SECONDS);
+		waitForNetworkIdle(NETWORK_QUIET_MILLIS, deadline(30, TimeUnit.SECONDS));
 		return this;
 	}
 
@@ -0,0 +1,153 @@
+package org.molgenis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.molgenis.RemoteNodes.Node;
+import org.molgenis.RemoteNodes.Strategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class RemoteNodesTest
+{
+	private final URL node1 = url(4444);
+	private final URL node2 = url(4445);
+	private final URL node3 = url(4446);
+
+	@Test
+	public void testRoundRobin()
+	{
+		RemoteNodes remoteNodes = new RemoteNodes(asList(node1, node2, node3), Strategy.ROUND_ROBIN, 0);
+		assertEquals(urls(remoteNodes.candidates()), asList(node1, node2, node3));
+		assertEquals(urls(remoteNodes.candidates()), asList(node2, node3, node1));
+		assertEquals(urls(remoteNodes.candidates()), asList(node3, node1, node2));
+		assertEquals(urls(remoteNodes.candidates()), asList(node1, node2, node3));
+	}
+
+	@Test
+	public void testLeastLoaded()
+	{
+		RemoteNodes remoteNodes = new RemoteNodes(asList(node1, node2, node3), Strategy.LEAST_LOADED, 0);
+		remoteNodes.candidates().get(0).tryAcquire(0);
+		remoteNodes.candidates().get(0).tryAcquire(0);
+		assertEquals(urls(remoteNodes.candidates()).get(0), node3);
+	}
+
+	@Test
+	public void testCapacity()
+	{
+		Node node = new Node(node1);
+		assertTrue(node.tryAcquire(2));
+		assertTrue(node.tryAcquire(2));
+		assertFalse(node.tryAcquire(2));
+		node.release();
+		assertTrue(node.tryAcquire(2));
+	}
+
+	@Test
+	public void testCreateDriverTriesAllNodes() throws IOException
+	{
+		RemoteNodes remoteNodes = new RemoteNodes(asList(url(freePort()), url(freePort())), Strategy.ROUND_ROBIN, 1);
+		try
+		{
+			remoteNodes.createDriver(DesiredCapabilities.firefox());
+			fail("Expected WebDriverException");
+		}
+		catch (WebDriverException expected)
+		{
+			assertTrue(expected.getMessage().startsWith("None of the remote nodes could create a session."));
+		}
+		assertTrue(remoteNodes.getSessionCounts().values().stream().allMatch(count -> count == 0));
+	}
+
+	@Test
+	public void testCreateDriverPicksLiveNode() throws IOException
+	{
+		List<String> requests = new CopyOnWriteArrayList<>();
+		HttpServer server = startStubNode(requests);
+		try
+		{
+			URL deadNode = url(freePort());
+			URL liveNode = url(server.getAddress().getPort());
+			RemoteNodes remoteNodes = new RemoteNodes(asList(deadNode, liveNode), Strategy.ROUND_ROBIN, 1);
+
+			WebDriver driver = remoteNodes.createDriver(DesiredCapabilities.firefox());
+			assertEquals(remoteNodes.getSessionCounts().get(deadNode), Integer.valueOf(0));
+			assertEquals(remoteNodes.getSessionCounts().get(liveNode), Integer.valueOf(1));
+			assertTrue(requests.contains("POST /wd/hub/session"));
+
+			driver.quit();
+			assertEquals(remoteNodes.getSessionCounts().get(liveNode), Integer.valueOf(0));
+			assertTrue(requests.contains("DELETE /wd/hub/session/stub"));
+		}
+		finally
+		{
+			server.stop(0);
+		}
+	}
+
+	/**
+	 * Starts a node on localhost that answers every command, including new session requests, with an empty success.
+	 */
+	private static HttpServer startStubNode(List<String> requests) throws IOException
+	{
+		HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/wd/hub", exchange -> {
+			String request = exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath();
+			requests.add(request);
+			String value = request.equals("POST /wd/hub/session") ? "{\"browserName\":\"firefox\"}" : "null";
+			byte[] response = ("{\"sessionId\":\"stub\",\"status\":0,\"value\":" + value + "}").getBytes(UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream body = exchange.getResponseBody())
+			{
+				body.write(response);
+			}
+		});
+		server.start();
+		return server;
+	}
+
+	private static List<URL> urls(List<Node> nodes)
+	{
+		return nodes.stream().map(Node::getUrl).collect(toList());
+	}
+
+	private static int freePort() throws IOException
+	{
+		try (ServerSocket socket = new ServerSocket(0))
+		{
+			return socket.getLocalPort();
+		}
+	}
+
+	private static URL url(int port)
+	{
+		try
+		{
+			return new URL("http://localhost:" + port + "/wd/hub");
+		}
+		catch (IOException e)
+		{
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+package org.molgenis;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.net.Socket;
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.molgenis.TrafficProxy.Traffic;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+public class TrafficProxyTest
+{
+	private static final byte[] PAGE = "<html>page</html>".getBytes(UTF_8);
+
+	private HttpServer server;
+	private final AtomicInteger serverRequests = new AtomicInteger();
+	private String baseUrl;
+
+	@BeforeClass
+	public void beforeClass() throws IOException
+	{
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+		server.createContext("/", exchange -> {
+			serverRequests.incrementAndGet();
+			exchange.sendResponseHeaders(200, PAGE.length);
+			try (OutputStream body = exchange.getResponseBody())
+			{
+				body.write(PAGE);
+			}
+		});
+		server.start();
+		baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterClass
+	public void afterClass()
+	{
+		server.stop(0);
+	}
+
+	@Test
+	public void testForward() throws IOException
+	{
+		try (TrafficProxy proxy = new TrafficProxy(emptyList(), emptyList(), 0, 0))
+		{
+			HttpURLConnection connection = open(proxy, baseUrl + "/page?x=1");
+			assertEquals(connection.getResponseCode(), 200);
+			assertEquals(read(connection), PAGE);
+
+			Traffic traffic = proxy.getTraffic().get(baseUrl + "/page?x=1");
+			assertEquals(traffic.getRequests(), 1);
+			assertTrue(traffic.getBytes() > PAGE.length, "bytes include the response headers");
+		}
+	}
+
+	@Test
+	public void testBlockAndStub() throws IOException
+	{
+		int before = serverRequests.get();
+		try (TrafficProxy proxy = new TrafficProxy(asList(Pattern.compile("\\.woff")),
+				asList(Pattern.compile("/analytics/")), 0, 0))
+		{
+			HttpURLConnection font = open(proxy, baseUrl + "/fonts/a.woff");
+			font.setRequestProperty("Referer", baseUrl + "/page");
+			assertEquals(font.getResponseCode(), 404);
+
+			HttpURLConnection script = open(proxy, baseUrl + "/analytics/track.js");
+			script.setRequestProperty("Referer", baseUrl + "/page");
+			assertEquals(script.getResponseCode(), 200);
+			assertEquals(read(script).length, 0);
+
+			Traffic traffic = proxy.getTraffic().get(baseUrl + "/page");
+			assertEquals(traffic.getRequests(), 2);
+			assertEquals(traffic.getBlocked(), 1);
+			assertEquals(traffic.getStubbed(), 1);
+		}
+		assertEquals(serverRequests.get(), before);
+	}
+
+	@Test
+	public void testKeepAlive() throws IOException
+	{
+		try (TrafficProxy proxy = new TrafficProxy(emptyList(), emptyList(), 0, 0);
+				Socket socket = new Socket(InetAddress.getLoopbackAddress(), proxy.getPort()))
+		{
+			OutputStream out = socket.getOutputStream();
+			InputStream in = new BufferedInputStream(socket.getInputStream());
+			for (int i = 0; i < 2; i++)
+			{
+				out.write(("GET " + baseUrl + "/page HTTP/1.1\r\nHost: 127.0.0.1\r\n\r\n").getBytes(UTF_8));
+				out.flush();
+				String head = readHead(in);
+				assertTrue(head.startsWith("HTTP/1.1 200"), head);
+				assertTrue(head.contains("Connection: keep-alive"), head);
+				byte[] body = new byte[PAGE.length];
+				int read = 0;
+				while (read < body.length)
+				{
+					read += in.read(body, read, body.length - read);
+				}
+				assertEquals(body, PAGE);
+			}
+			assertEquals(proxy.getTraffic().get(baseUrl + "/page").getRequests(), 2);
+		}
+	}
+
+	@Test
+	public void testLatency() throws IOException
+	{
+		try (TrafficProxy proxy = new TrafficProxy(emptyList(), emptyList(), 200, 0))
+		{
+			long start = System.nanoTime();
+			assertEquals(open(proxy, baseUrl + "/slow").getResponseCode(), 200);
+			assertTrue(System.nanoTime() - start >= 200_000_000L);
+		}
+	}
+
+	private static HttpURLConnection open(TrafficProxy trafficProxy, String url) throws IOException
+	{
+		Proxy proxy = new Proxy(Proxy.Type.HTTP, new InetSocketAddress("127.0.0.1", trafficProxy.getPort()));
+		return (HttpURLConnection) new URL(url).openConnection(proxy);
+	}
+
+	private static String readHead(InputStream in) throws IOException
+	{
+		StringBuilder head = new StringBuilder();
+		while (!head.toString().endsWith("\r\n\r\n"))
+		{
+			int b = in.read();
+			if (b == -1)
+			{
+				break;
+			}
+			head.append((char) b);
+		}
+		return head.toString();
+	}
+
+	private static byte[] read(HttpURLConnection connection) throws IOException
+	{
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		try (InputStream in = connection.getInputStream())
+		{
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = in.read(buffer)) != -1)
+			{
+				result.write(buffer, 0, read);
+			}
+		}
+		return result.toByteArray();
+	}
+}
@@ -1,28 +1,50 @@
 package org.molgenis.selenium.test;
 
 import static com.google.common.collect.Lists.newArrayList;
-import static org.testng.Assert.assertEquals;
-import static org.testng.Assert.assertNull;
 
 import java.io.File;
-import java.util.Collections;
-import java.util.Comparator;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import org.molgenis.DriverPool;
 import org.molgenis.DriverType;
+import org.molgenis.FirefoxProfileTemplate;
 import org.molgenis.JenkinsConfig;
+import org.molgenis.PooledHttpClientFactory;
+import org.molgenis.RemoteNodes;
+import org.molgenis.SessionInjector;
+import org.molgenis.TrafficProxy;
 import org.molgenis.data.rest.client.MolgenisClient;
-import org.molgenis.selenium.model.AbstractModel;
+import org.molgenis.rest.EntityTeardown;
+import org.molgenis.rest.FixtureCache;
+import org.molgenis.rest.FixtureImporter;
+import org.molgenis.rest.TokenManager;
 import org.molgenis.selenium.model.HomepageModel;
+import org.molgenis.selenium.model.StepTimings;
+import org.molgenis.selenium.model.TestBudget;
+import org.molgenis.selenium.model.WaitTimings;
+import org.molgenis.selenium.model.Waits;
+import org.molgenis.selenium.model.component.SpinnerModel;
 import org.molgenis.selenium.model.importer.ImporterModel;
 import org.molgenis.selenium.model.importer.ImporterModel.EntitiesOptions;
+import org.molgenis.selenium.test.fixture.Fixture;
+import org.molgenis.selenium.test.fixture.FixtureOrderInterceptor;
+import org.molgenis.selenium.test.fixture.FixtureScheduler;
+import org.molgenis.selenium.test.fixture.UsesFixtures;
+import org.molgenis.selenium.test.table.TableDiff;
+import org.molgenis.selenium.test.table.TableDiff.Report;
 import org.molgenis.util.GsonConfig;
-import org.openqa.selenium.Dimension;
 import org.openqa.selenium.Point;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -30,22 +52,65 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.testng.AbstractTestNGSpringContextTests;
 import org.testng.Assert;
+import org.testng.IHookCallBack;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
+import org.testng.annotations.Listeners;
+
+import com.google.common.base.Stopwatch;
+import com.sun.management.OperatingSystemMXBean;
 
 /**
  * Base class that does the general setup and tear down of the tests.
+ * 
+ * The tests can run in parallel, see the parallel profile in the pom. Every worker thread then drives its own browser
+ * session through {@link #driver}. All threads share the REST token of {@link #uid}, see {@link #getToken()}. Page
+ * models are created with {@link #driver}, so they can be shared between threads. When the methods of a class run in
+ * parallel, each thread returns its session to the pool after every method instead of after the class, as only the
+ * thread that runs {@link #abstractAfterClass()} would otherwise give its session back.
+ * 
+ * Test classes declare the data they need with {@link UsesFixtures}. Each fixture is imported once for all classes
+ * that use it and deleted after the last of them finished, see {@link FixtureScheduler}. Classes that run at the same
+ * time only share data they declare there, so a class that imports or deletes entities of a fixture itself must
+ * declare that it modifies the fixture.
+ * 
+ * If a browser crashes, only the running test fails. The remaining tests of the class continue in a new session that
+ * is signed in as {@link #uid}.
  */
 @ContextConfiguration(classes =
 { JenkinsConfig.class, Config.class, GsonConfig.class })
+@Listeners(FixtureOrderInterceptor.class)
 public abstract class AbstractSeleniumTest extends AbstractTestNGSpringContextTests
 {
 	private static final Logger LOG = LoggerFactory.getLogger(AbstractSeleniumTest.class);
 
+	private static final Stopwatch SUITE_STOPWATCH = Stopwatch.createUnstarted();
+	private static long suiteCpuNanosAtStart;
+
+	private static DriverType driverType;
+	private static DriverPool driverPool;
+
+	/**
+	 * Signs the browsers in with a session cookie, or null to sign in through the user interface.
+	 */
+	private static SessionInjector sessionInjector;
+	private static final AtomicInteger SIGN_IN_METHODS = new AtomicInteger();
+	private static final AtomicLong SIGN_IN_NANOS = new AtomicLong();
+	private static final AtomicBoolean UI_BASELINE_MEASURED = new AtomicBoolean();
+	private static volatile long uiBaselineNanos;
+
+	/**
+	 * Holds the fixtures for all test classes. The order of the classes comes from the {@link FixtureOrderInterceptor}.
+	 */
+	private static final FixtureScheduler FIXTURES = new FixtureScheduler();
+
 	protected WebDriver driver;
-	protected String token;
 
 	@Value("${test.baseurl}")
 	protected String baseURL;
@@ -56,82 +121,415 @@ public abstract class AbstractSeleniumTest extends AbstractTestNGSpringContextTe
 	@Value("${test.pwd}")
 	protected String pwd;
 
-	@Value("${webdriver.gecko.driver}")
-	protected String webdriverGeckoDriver;
-
 	@Autowired
 	protected MolgenisClient restClient;
 
+	@Autowired
+	protected TokenManager tokenManager;
+
+	@Autowired
+	private FixtureImporter fixtureImporter;
+
+	/**
+	 * UI to import the fixtures through the importer wizard, REST to import them through its endpoint.
+	 */
+	@Value("${test.import:REST}")
+	private String importMode;
+
+	@Autowired
+	private FixtureCache fixtureCache;
+
+	@Autowired
+	private EntityTeardown entityTeardown;
+
+	@Value("${test.fixture.cache:true}")
+	private boolean useFixtureCache;
+
 	protected HomepageModel homepage;
 
+	private boolean parallelMethods;
+
+	/**
+	 * Configures the browser sessions and starts launching the first ones in the background, so that browser startup
+	 * overlaps with loading the Spring context and the REST login. This runs before the context exists, so the driver
+	 * properties are read from the property file directly.
+	 */
+	@BeforeSuite
+	public void abstractBeforeSuite(ITestContext context)
+	{
+		synchronized (SUITE_STOPWATCH)
+		{
+			if (SUITE_STOPWATCH.isRunning())
+			{
+				return;
+			}
+			FIXTURES.plan(context);
+			suiteCpuNanosAtStart = getProcessCpuNanos();
+			SUITE_STOPWATCH.start();
+
+			Properties properties = JenkinsConfig.loadProperties();
+			System.setProperty(RemoteNodes.NODES_PROPERTY, properties.getProperty("test.remote.nodes", ""));
+			System.setProperty(RemoteNodes.STRATEGY_PROPERTY,
+					properties.getProperty("test.remote.strategy", RemoteNodes.Strategy.ROUND_ROBIN.name()));
+			System.setProperty(RemoteNodes.CAPACITY_PROPERTY, properties.getProperty("test.remote.capacity", "0"));
+			System.setProperty(PooledHttpClientFactory.POOL_SIZE_PROPERTY,
+					properties.getProperty("test.http.pool.size", "0"));
+			System.setProperty(PooledHttpClientFactory.DRIVERS_PROPERTY,
+					properties.getProperty("test.driver.pool.size", "1"));
+			System.setProperty(TrafficProxy.ENABLED_PROPERTY, properties.getProperty("test.proxy", "false"));
+			System.setProperty(TrafficProxy.BLOCK_PROPERTY, properties.getProperty("test.proxy.block", ""));
+			System.setProperty(TrafficProxy.STUB_PROPERTY, properties.getProperty("test.proxy.stub", ""));
+			System.setProperty(TrafficProxy.LATENCY_PROPERTY, properties.getProperty("test.proxy.latency", "0"));
+			System.setProperty(TrafficProxy.BANDWIDTH_PROPERTY, properties.getProperty("test.proxy.bandwidth", "0"));
+			System.setProperty(Waits.MODE_PROPERTY, properties.getProperty("test.waits", Waits.Mode.IMPLICIT.name()));
+			System.setProperty(Waits.BACKOFF_PROPERTY,
+					properties.getProperty("test.waits.backoff", Waits.DEFAULT_BACKOFF));
+			System.setProperty(TestBudget.SECONDS_PROPERTY, properties.getProperty("test.budget", "0"));
+			System.setProperty(StepTimings.OUTPUT_PROPERTY, properties.getProperty("test.timings", ""));
+			System.setProperty(SpinnerModel.MODE_PROPERTY,
+					properties.getProperty("test.spinner", SpinnerModel.Mode.POLLING.name()));
+			System.setProperty(SpinnerModel.QUIET_MILLIS_PROPERTY, properties.getProperty("test.spinner.quiet", "200"));
+			driverType = DriverType.valueOf(properties.getProperty("test.driver", DriverType.FIREFOX.name()));
+			String geckoDriver = properties.getProperty("webdriver.gecko.driver");
+			// only browsers on this machine need the driver binary, the nodes of REMOTE bring their own
+			if (geckoDriver != null && driverType.isLocal())
+			{
+				System.setProperty("webdriver.gecko.driver", geckoDriver);
+			}
+			if ("COOKIE".equalsIgnoreCase(properties.getProperty("test.signin", "UI")))
+			{
+				sessionInjector = new SessionInjector(properties.getProperty("test.baseurl"),
+						properties.getProperty("test.uid"), properties.getProperty("test.pwd"));
+			}
+			String profileTemplate = properties.getProperty("test.firefox.profile.template", "");
+			// the browsers read the cache from this machine's disk
+			if (!profileTemplate.isEmpty() && driverType.isLocal())
+			{
+				System.setProperty(FirefoxProfileTemplate.TEMPLATE_PROPERTY, profileTemplate);
+				FirefoxProfileTemplate template = new FirefoxProfileTemplate(new File(profileTemplate));
+				if (!template.isBuilt())
+				{
+					template.build(driverType, webDriver -> visitPlugins(webDriver, properties));
+				}
+			}
+			driverPool = driverType.getPool(Integer.parseInt(properties.getProperty("test.driver.pool.size", "1")));
+			// a session that replaces a crashed one continues where the tests expect it: signed in
+			driverPool.getThreadBoundDriver().setRespawnHandler(webDriver -> {
+				if (sessionInjector != null)
+				{
+					sessionInjector.signIn(webDriver);
+				}
+				else
+				{
+					signInThroughUi(webDriver, properties);
+				}
+			});
+			driverPool.prespawn(Integer.parseInt(properties.getProperty("test.driver.prespawn", "1")));
+		}
+	}
+
+	/**
+	 * Logs the wall-clock and JVM CPU time of the suite, so that runs with different {@link DriverType}s can be
+	 * compared.
+	 */
+	@AfterSuite(alwaysRun = true)
+	public void abstractAfterSuite()
+	{
+		synchronized (SUITE_STOPWATCH)
+		{
+			if (SUITE_STOPWATCH.isRunning())
+			{
+				SUITE_STOPWATCH.stop();
+				LOG.info("Suite using driver {} took {} wall-clock, {} ms JVM CPU.", driverType, SUITE_STOPWATCH,
+						TimeUnit.NANOSECONDS.toMillis(getProcessCpuNanos() - suiteCpuNanosAtStart));
+			}
+		}
+		if (driverPool != null)
+		{
+			driverPool.getThreadBoundDriver().releaseAll();
+		}
+		logSignInTime();
+		if (fixtureCache != null)
+		{
+			FIXTURES.releaseAll(this::releaseFixture);
+		}
+		if (fixtureCache != null && useFixtureCache)
+		{
+			LOG.info("{}", fixtureCache);
+		}
+		if (tokenManager != null)
+		{
+			LOG.info("{}", tokenManager);
+			tokenManager.logoutAll();
+		}
+		PooledHttpClientFactory.getInstance().ifPresent(factory -> LOG.info("{}", factory));
+		TrafficProxy.getInstance().ifPresent(proxy -> {
+			proxy.logTraffic();
+			proxy.resetTraffic();
+		});
+		StepTimings.write();
+		WaitTimings.logReport();
+	}
+
+	/**
+	 * Signs in and opens the plugins the tests use, so that their assets end up in the browser cache.
+	 */
+	private static void visitPlugins(WebDriver webDriver, Properties properties)
+	{
+		webDriver.manage().timeouts().implicitlyWait(Waits.getImplicitWaitSeconds(), TimeUnit.SECONDS);
+		HomepageModel homepageModel = signInThroughUi(webDriver, properties);
+		homepageModel.menu().selectDataExplorer().spinner().waitTillDone(10, TimeUnit.SECONDS);
+		homepageModel.menu().selectImporter();
+		homepageModel.menu().selectMappingService();
+		homepageModel.menu().selectTagWizard();
+		homepageModel.menu().signOut();
+	}
+
+	private static HomepageModel signInThroughUi(WebDriver webDriver, Properties properties)
+	{
+		webDriver.get(properties.getProperty("test.baseurl"));
+		return Waits.initElements(webDriver, HomepageModel.class).menu().openSignInDialog()
+				.signIn(properties.getProperty("test.uid"), properties.getProperty("test.pwd"));
+	}
+
+	private static void logSignInTime()
+	{
+		int methods = SIGN_IN_METHODS.get();
+		if (methods == 0)
+		{
+			return;
+		}
+		long perMethod = SIGN_IN_NANOS.get() / methods;
+		LOG.info("Signing in and out took {} ms per test method, {} test methods.",
+				TimeUnit.NANOSECONDS.toMillis(perMethod), methods);
+		if (sessionInjector != null && uiBaselineNanos > 0)
+		{
+			LOG.info("Session cookies saved {} s per test method, {} s in total, compared to the user interface. {}",
+					String.format("%.1f", (uiBaselineNanos - perMethod) / 1e9),
+					String.format("%.1f", (uiBaselineNanos - perMethod) * methods / 1e9), sessionInjector);
+		}
+	}
+
+	private static long getProcessCpuNanos()
+	{
+		java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+		return os instanceof OperatingSystemMXBean ? ((OperatingSystemMXBean) os).getProcessCpuTime() : 0;
+	}
+
 	@BeforeClass
-	public void abstractBeforeClass()
+	public void abstractBeforeClass(ITestContext context)
 	{
-		System.setProperty("webdriver.gecko.driver", webdriverGeckoDriver);
-		driver = DriverType.FIREFOX.getDriver();
-		driver.manage().timeouts().implicitlyWait(AbstractModel.IMPLICIT_WAIT_SECONDS, TimeUnit.SECONDS);
-		this.setBrowserDefaultSize();
+		parallelMethods = "methods".equalsIgnoreCase(String.valueOf(context.getCurrentXmlTest().getParallel()));
+		// each thread leases its own session on first use, already reset to the default size and implicit wait
+		driver = driverPool.getThreadBoundDriver().getDriver();
+		FIXTURES.acquire(getClass(), this::loadFixture);
 	}
 
 	@AfterClass
 	public void abstractAfterClass()
 	{
-		this.driver.close();
+		FIXTURES.release(getClass(), this::releaseFixture);
+		// no test runs on this thread right now, so its session can go back to the pool
+		driverPool.getThreadBoundDriver().release();
+	}
+
+	/**
+	 * Attributes the page model actions and waits to the test method, see {@link StepTimings} and
+	 * {@link WaitTimings}.
+	 */
+	@BeforeMethod(alwaysRun = true)
+	public void startTimings(Method method)
+	{
+		String test = getClass().getSimpleName() + '.' + method.getName();
+		StepTimings.startTest(test);
+		WaitTimings.startTest(test);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void endTimings()
+	{
+		StepTimings.endTest();
+		WaitTimings.endTest();
+	}
+
+	/**
+	 * Runs the test method within its {@link TestBudget}: the one it declares with {@link Budget}, the one its class
+	 * declares, or the default. The configuration methods around it have no budget, so that signing out and cleaning
+	 * up still work after a test spent its budget. If the test failed because its browser died, the session is replaced
+	 * before signing out, so that the rest of the class can run.
+	 */
+	@Override
+	public void run(IHookCallBack callBack, ITestResult testResult)
+	{
+		Method method = testResult.getMethod().getMethod();
+		Budget budget = method.isAnnotationPresent(Budget.class) ? method.getAnnotation(Budget.class)
+				: getClass().getAnnotation(Budget.class);
+		TestBudget.start(getClass().getSimpleName() + '.' + method.getName(),
+				budget != null ? TimeUnit.SECONDS.toMillis(budget.value()) : TestBudget.getDefaultMillis());
+		try
+		{
+			super.run(callBack, testResult);
+		}
+		finally
+		{
+			TestBudget.end();
+		}
+		if (testResult.getThrowable() != null)
+		{
+			driverPool.getThreadBoundDriver().checkSession(testResult.getThrowable());
+		}
 	}
 
 	@BeforeMethod
 	public void abstractBeforeMethod()
 	{
-		driver.get(baseURL);
-		homepage = PageFactory.initElements(driver, HomepageModel.class).menu().openSignInDialog().signIn(uid, pwd);
-		token = restClient.login(uid, pwd).getToken();
+		Stopwatch sw = Stopwatch.createStarted();
+		homepage = signIn();
+		SIGN_IN_NANOS.addAndGet(sw.elapsed(TimeUnit.NANOSECONDS));
+		SIGN_IN_METHODS.incrementAndGet();
 	}
 
 	@AfterMethod
 	public void abstractAfterMethod()
 	{
-		homepage.menu().signOut();
-		restClient.logout(token);
+		Stopwatch sw = Stopwatch.createStarted();
+		try
+		{
+			signOut();
+		}
+		finally
+		{
+			SIGN_IN_NANOS.addAndGet(sw.elapsed(TimeUnit.NANOSECONDS));
+			if (parallelMethods)
+			{
+				// the methods of a class run on any thread, so only this thread knows when its session is done
+				driverPool.getThreadBoundDriver().release();
+			}
+		}
 	}
 
-	protected void tryDeleteEntities(String... entityNames)
+	/**
+	 * Opens the home page signed in as {@link #uid}. With test.signin=COOKIE the browser gets a session cookie
+	 * instead of signing in through the user interface.
+	 */
+	protected HomepageModel signIn()
 	{
-		LOG.info("Delete entities if present...");
-		for (String name : entityNames)
+		if (sessionInjector == null)
 		{
-			try
-			{
-				LOG.info("Delete {}...", name);
-				restClient.deleteMetadata(token, name);
-			}
-			catch (Exception ex)
-			{
-				LOG.info("Failed to delete entity {}. {}", name, ex.getMessage());
-			}
+			driver.get(baseURL);
+			return Waits.initElements(driver, HomepageModel.class).menu().openSignInDialog().signIn(uid, pwd);
+		}
+		if (UI_BASELINE_MEASURED.compareAndSet(false, true))
+		{
+			// sign in and out through the user interface once, to report what the session cookies save
+			Stopwatch sw = Stopwatch.createStarted();
+			driver.get(baseURL);
+			Waits.initElements(driver, HomepageModel.class).menu().openSignInDialog().signIn(uid, pwd).menu()
+					.signOut();
+			uiBaselineNanos = sw.elapsed(TimeUnit.NANOSECONDS);
+		}
+		sessionInjector.signIn(driver);
+		return Waits.initElements(driver, HomepageModel.class);
+	}
+
+	/**
+	 * Signs out through the user interface. With session cookies the browser stays signed in, so this does nothing.
+	 */
+	protected void signOut()
+	{
+		if (sessionInjector == null)
+		{
+			Waits.initElements(driver, HomepageModel.class).menu().signOut();
 		}
 	}
 
-	protected void tryDeleteData(String... entityNames)
+	/**
+	 * Returns the shared REST token of {@link #uid}. It stays valid for the whole suite, unless the server forgets it;
+	 * use {@link #tokenManager} to make requests that sign in again in that case.
+	 */
+	protected String getToken()
+	{
+		return tokenManager.getToken(uid, pwd);
+	}
+
+	/**
+	 * Deletes the entities, in the order their references allow, see {@link EntityTeardown}.
+	 */
+	protected EntityTeardown.Report tryDeleteEntities(String... entityNames)
 	{
 		LOG.info("Delete entities if present...");
-		for (String name : entityNames)
+		return entityTeardown.deleteEntities(Arrays.asList(entityNames));
+	}
+
+	/**
+	 * Deletes the rows of the entities, in the order their references allow.
+	 */
+	protected EntityTeardown.Report tryDeleteData(String... entityNames)
+	{
+		LOG.info("Delete entity data if present...");
+		return entityTeardown.deleteData(Arrays.asList(entityNames));
+	}
+
+	/**
+	 * Imports a fixture after deleting what is left of it, unless the server still holds exactly the data of an
+	 * earlier import, see {@link FixtureCache}.
+	 */
+	private void loadFixture(Fixture fixture)
+	{
+		List<File> files = fixture.getFiles().stream().map(ImporterModel::getFile).collect(Collectors.toList());
+		List<String> entityNames = new ArrayList<>(fixture.getEntities());
+		entityNames.addAll(fixture.getDataEntities());
+		if (useFixtureCache && fixtureCache.isCurrent(files, entityNames))
 		{
-			try
-			{
-				LOG.info("Delete {} data...", name);
-				restClient.deleteData(token, name);
-			}
-			catch (Exception ex)
-			{
-				LOG.info("Failed to delete data for {}. {}", name, ex.getMessage());
-			}
+			return;
+		}
+		Stopwatch sw = Stopwatch.createStarted();
+		unloadFixture(fixture);
+		if (fixture.getVcfEntityName() != null)
+		{
+			importVcf(fixture.getFiles().get(0), fixture.getVcfEntityName());
+		}
+		else
+		{
+			importEMXFiles(fixture.getFiles().toArray(new String[fixture.getFiles().size()]));
 		}
+		if (useFixtureCache)
+		{
+			fixtureCache.record(files, entityNames, sw.elapsed(TimeUnit.MILLISECONDS));
+		}
+	}
+
+	/**
+	 * Unloads a fixture no test class needs any more. With the fixture cache an unmodified fixture stays, so that the
+	 * next run can use it.
+	 */
+	private void releaseFixture(Fixture fixture, boolean modified)
+	{
+		if (modified || !useFixtureCache)
+		{
+			unloadFixture(fixture);
+		}
+	}
+
+	private void unloadFixture(Fixture fixture)
+	{
+		entityTeardown.deleteEntities(fixture.getEntities());
+		entityTeardown.deleteData(fixture.getDataEntities());
 	}
 
+	/**
+	 * Imports fixture files with action ADD. Over REST the files are imported at the same time, so they must not depend
+	 * on each other; import such files with separate calls.
+	 */
 	protected void importEMXFiles(String... relativePaths)
 	{
-		driver.get(baseURL);
-		homepage = PageFactory.initElements(driver, HomepageModel.class).menu().openSignInDialog().signIn(uid, pwd);
+		if (!isImportThroughUi())
+		{
+			fixtureImporter
+					.importFiles(Arrays.stream(relativePaths).map(ImporterModel::getFile).collect(Collectors.toList()));
+			return;
+		}
+		homepage = signIn();
 		for (String path : relativePaths)
 		{
 			LOG.info("Import file {}...", newArrayList(relativePaths));
@@ -139,71 +537,39 @@ public abstract class AbstractSeleniumTest extends AbstractTestNGSpringContextTe
 			driver.get(baseURL);
 			homepage.menu().selectImporter().importFile(annotatorTestFile, EntitiesOptions.ADD).finish();
 		}
-		homepage.menu().signOut();
+		signOut();
 	}
 
 	protected void importVcf(String relativePath, String entityName)
 	{
-		driver.get(baseURL);
-		homepage = PageFactory.initElements(driver, HomepageModel.class).menu().openSignInDialog().signIn(uid, pwd);
+		if (!isImportThroughUi())
+		{
+			fixtureImporter.importFile(ImporterModel.getFile(relativePath), entityName);
+			return;
+		}
+		homepage = signIn();
 		File annotatorTestFile = ImporterModel.getFile(relativePath);
 		driver.get(baseURL);
 		homepage.menu().selectImporter().importVcf(annotatorTestFile, entityName).finish();
-		homepage.menu().signOut();
+		signOut();
 	}
 
-	private static void sort(List<List<String>> list)
+	private boolean isImportThroughUi()
 	{
-		Collections.sort(list, new Comparator<List<String>>()
-		{
-			@Override
-			public int compare(List<String> a, List<String> b)
-			{
-				return a.get(0).compareTo(b.get(0));
-			}
-		});
+		return "UI".equalsIgnoreCase(importMode);
 	}
 
+	/**
+	 * Compares the tables as multisets of rows keyed on their first cell, allowing small differences in numbers. Fails
+	 * with the first differences. Use a {@link TableDiff} for other keys or tolerances.
+	 */
 	protected static void compareTableData(List<List<String>> actual, List<List<String>> expected)
 	{
-		sort(actual);
-		sort(expected);
-
 		LOG.debug("Compare table data...");
-		try
-		{
-			assertEquals(actual.size(), expected.size());
-			for (int i = 0; i < expected.size(); i++)
-			{
-				List<String> actualRow = actual.get(i);
-				List<String> expectedRow = expected.get(i);
-				assertEquals(actualRow.size(), expectedRow.size());
-				for (int j = 0; j < expectedRow.size(); j++)
-				{
-					String actualCell = actualRow.get(j);
-					String expectedCell = expectedRow.get(j);
-
-					if (actualCell == null)
-					{
-						assertNull(expectedCell);
-					}
-					else
-					{
-						if (!actualCell.equals(expectedCell))
-						{
-							// could be a float, compare them for being reasonably close
-							float actualFloat = Float.parseFloat(actualCell);
-							float expectedFloat = Float.parseFloat(expectedCell);
-							Assert.assertEquals(actualFloat, expectedFloat, 1e-6 * actualFloat);
-						}
-					}
-				}
-			}
-		}
-		catch (Throwable t)
+		Report report = new TableDiff().compare(expected, actual);
+		if (!report.isEqual())
 		{
-			Assert.fail("Error comparing table data. Expected:<" + getJavaInitializerString(expected) + "> but was:<"
-					+ getJavaInitializerString(actual) + ">", t);
+			Assert.fail("Error comparing table data. " + report);
 		}
 	}
 
@@ -232,7 +598,7 @@ public abstract class AbstractSeleniumTest extends AbstractTestNGSpringContextTe
 	public void setBrowserDefaultSize()
 	{
 		driver.manage().window().setPosition(new Point(0, 0));
-		driver.manage().window().setSize(new Dimension(1920, 1080));
+		driver.manage().window().setSize(DriverPool.DEFAULT_SIZE);
 		// FIXME MOLGENIS should be able to work with this browser size
 		// driver.manage().window().setSize(new Dimension(1280, 800));
 	}
@@ -0,0 +1,21 @@
+package org.molgenis.selenium.test;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.molgenis.selenium.model.TestBudget;
+
+/**
+ * Declares the {@link TestBudget} of a test method in seconds, or of all test methods of a class. Tests without it get
+ * the budget of the property test.budget.
+ */
+@Retention(RUNTIME)
+@Target({ METHOD, TYPE })
+public @interface Budget
+{
+	long value();
+}
@@ -5,12 +5,18 @@ import static java.util.Arrays.asList;
 import org.apache.http.client.HttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
 import org.molgenis.data.rest.client.MolgenisClient;
+import org.molgenis.rest.EntityTeardown;
+import org.molgenis.rest.FixtureCache;
+import org.molgenis.rest.FixtureImporter;
+import org.molgenis.rest.TokenManager;
 import org.molgenis.util.GsonHttpMessageConverter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.FormHttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
@@ -24,7 +30,7 @@ public class Config
 
 	@Value("${test.pwd}")
 	private String pwd;
-	
+
 	@Autowired
 	GsonHttpMessageConverter converter;
 
@@ -34,7 +40,9 @@ public class Config
 		HttpClient client = HttpClientBuilder.create().disableCookieManagement().build();
 		HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(client);
 		RestTemplate template = new RestTemplate(requestFactory);
-		template.setMessageConverters(asList(converter));
+		// the form and string converters write the multipart requests of the fixture importer
+		template.setMessageConverters(
+				asList(converter, new FormHttpMessageConverter(), new StringHttpMessageConverter()));
 		return template;
 	}
 
@@ -42,8 +50,30 @@ public class Config
 	public MolgenisClient restClient()
 	{
 		String apiURL = String.format("%s/api/v1", baseURL);
-		MolgenisClient molgenisClient = new MolgenisClient(restTemplate(), apiURL);
-		molgenisClient.login(uid, pwd);
-		return molgenisClient;
+		return new MolgenisClient(restTemplate(), apiURL);
+	}
+
+	@Bean
+	public TokenManager tokenManager()
+	{
+		return new TokenManager(restClient());
+	}
+
+	@Bean
+	public FixtureImporter fixtureImporter()
+	{
+		return new FixtureImporter(baseURL, restTemplate(), restClient(), tokenManager(), uid, pwd);
+	}
+
+	@Bean
+	public FixtureCache fixtureCache()
+	{
+		return new FixtureCache(baseURL, tokenManager(), fixtureImporter(), uid, pwd);
+	}
+
+	@Bean
+	public EntityTeardown entityTeardown()
+	{
+		return new EntityTeardown(baseURL, restClient(), tokenManager(), uid, pwd);
 	}
 }
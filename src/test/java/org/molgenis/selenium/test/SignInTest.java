@@ -3,8 +3,8 @@ package org.molgenis.selenium.test;
 import org.molgenis.JenkinsConfig;
 import org.molgenis.selenium.model.HomepageModel;
 import org.molgenis.selenium.model.SignInModel;
+import org.molgenis.selenium.model.Waits;
 import org.molgenis.selenium.test.dataexplorer.annotators.AnnotatorTest;
-import org.openqa.selenium.support.PageFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.ContextConfiguration;
@@ -35,7 +35,7 @@ public class SignInTest extends AbstractSeleniumTest
 	public void testLoginFails() throws InterruptedException
 	{
 		LOG.info("Test that login with invalid credentials fails...");
-		HomepageModel homepageModel = PageFactory.initElements(driver, HomepageModel.class);
+		HomepageModel homepageModel = Waits.initElements(driver, HomepageModel.class);
 
 		// open the signin
 		SignInModel signinModel = homepageModel.menu().openSignInDialog().signInFails(uid, "blaat");
@@ -52,7 +52,7 @@ public class SignInTest extends AbstractSeleniumTest
 	public void testLoginLogout() throws InterruptedException
 	{
 		LOG.info("Test login and logout...");
-		HomepageModel homepageModel = PageFactory.initElements(driver, HomepageModel.class);
+		HomepageModel homepageModel = Waits.initElements(driver, HomepageModel.class);
 
 		// should show sign out button
 		Assert.assertTrue(homepageModel.menu().openSignInDialog().signIn(uid, pwd).menu().isLoggedIn());
@@ -0,0 +1,123 @@
+package org.molgenis.selenium.test;
+
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.molgenis.DriverType;
+import org.molgenis.JenkinsConfig;
+import org.molgenis.PooledHttpClientFactory;
+import org.molgenis.selenium.model.AbstractModel;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.google.common.base.Stopwatch;
+
+/**
+ * Reads a large table cell by cell, with the default command executor and with the {@link PooledHttpClientFactory},
+ * and with the single script of {@link AbstractModel#getTableData(List)}. Logs the milliseconds each takes and the
+ * WebDriver commands per second of reading cell by cell, as counted by the {@link PooledHttpClientFactory}. Needs a
+ * browser but no MOLGENIS server. It is not part of the suite, run it with
+ * <code>mvn test -Dtest=TableDataBenchmark</code>.
+ */
+public class TableDataBenchmark
+{
+	private static final Logger LOG = LoggerFactory.getLogger(TableDataBenchmark.class);
+
+	private static final int ROWS = 1000;
+	private static final int COLUMNS = 10;
+	private static final String POOL_SIZE = "4";
+
+	private static final String CREATE_TABLE = "var body = document.createElement('table').createTBody();"
+			+ "body.parentNode.id = 'benchmark';"
+			+ "for (var i = 0; i < arguments[0]; i++) { var row = body.insertRow();"
+			+ "for (var j = 0; j < arguments[1]; j++) { row.insertCell().textContent = i + ':' + j; } }"
+			+ "document.body.appendChild(body.parentNode);";
+
+	private int pooledCommands;
+
+	@BeforeClass
+	public void beforeClass()
+	{
+		Properties properties = JenkinsConfig.loadProperties();
+		System.setProperty("webdriver.gecko.driver", properties.getProperty("webdriver.gecko.driver"));
+	}
+
+	@Test
+	public void benchmark()
+	{
+		System.clearProperty(PooledHttpClientFactory.POOL_SIZE_PROPERTY);
+		long cellByCell = readMillis(DriverType.FIREFOX.getDriver(), false);
+		long script = readMillis(DriverType.FIREFOX.getDriver(), true);
+
+		System.setProperty(PooledHttpClientFactory.POOL_SIZE_PROPERTY, POOL_SIZE);
+		long pooled = readMillis(DriverType.FIREFOX.getDriver(), false);
+
+		// the default executor sends the same commands, it just does not count them
+		long commands = pooledCommands;
+		LOG.info("Reading a {}x{} table cell by cell took {} commands, {} ms, {} commands/s, and {} ms, {} commands/s "
+				+ "pooled. getTableData took {} ms. {}", ROWS, COLUMNS, commands, cellByCell,
+				commands * 1000 / cellByCell, pooled, commands * 1000 / pooled, script,
+				PooledHttpClientFactory.getInstance().get());
+	}
+
+	/**
+	 * Reads the table and returns the milliseconds it took. With the pooled executor, also keeps the number of commands
+	 * the read sent.
+	 */
+	private long readMillis(WebDriver driver, boolean script)
+	{
+		try
+		{
+			((JavascriptExecutor) driver).executeScript(CREATE_TABLE, ROWS, COLUMNS);
+			TableModel table = new TableModel(driver);
+			Optional<PooledHttpClientFactory> factory = PooledHttpClientFactory.getInstance();
+			int commandsBefore = factory.map(PooledHttpClientFactory::getCommandCount).orElse(0);
+			Stopwatch sw = Stopwatch.createStarted();
+			List<List<String>> data = script ? table.getTableData() : table.getTableDataCellByCell();
+			long millis = Math.max(sw.elapsed(TimeUnit.MILLISECONDS), 1);
+			factory.ifPresent(pool -> pooledCommands = pool.getCommandCount() - commandsBefore);
+			assertEquals(data.size(), ROWS);
+			assertEquals(data.get(ROWS - 1).get(COLUMNS - 1), (ROWS - 1) + ":" + (COLUMNS - 1));
+			return millis;
+		}
+		finally
+		{
+			driver.quit();
+		}
+	}
+
+	private static class TableModel extends AbstractModel
+	{
+		TableModel(WebDriver driver)
+		{
+			super(driver);
+		}
+
+		List<List<String>> getTableData()
+		{
+			return getTableData(driver.findElements(By.cssSelector("#benchmark tbody tr")));
+		}
+
+		/**
+		 * Reads the table the way getTableData used to, with a command per row and per cell.
+		 */
+		List<List<String>> getTableDataCellByCell()
+		{
+			return driver.findElements(By.cssSelector("#benchmark tbody tr")).stream()
+					.map(row -> row.findElements(By.cssSelector("td")).stream().map(WebElement::getText)
+							.collect(toList()))
+					.collect(toList());
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package org.molgenis.selenium.test;
+
+import static org.testng.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.molgenis.selenium.model.AdaptiveWait;
+import org.molgenis.selenium.model.Waits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+/**
+ * Measures the median time between a condition starting to hold and the wait for it returning, first polling every
+ * 500 ms like a WebDriverWait and then with the default backoff of {@link Waits#BACKOFF_PROPERTY}. Needs no browser,
+ * the conditions hold after a fixed delay. It is not part of the suite, run it with
+ * <code>mvn test -Dtest=WaitBenchmark</code>.
+ */
+public class WaitBenchmark
+{
+	private static final Logger LOG = LoggerFactory.getLogger(WaitBenchmark.class);
+
+	private static final long[] DELAYS_MILLIS = { 0, 15, 40, 75, 120, 200, 310, 480, 650, 900 };
+
+	@Test
+	public void benchmark()
+	{
+		long before = medianLatencyMillis(500, 500);
+		String[] backoff = Waits.DEFAULT_BACKOFF.split(",");
+		long after = medianLatencyMillis(Long.parseLong(backoff[0]), Long.parseLong(backoff[1]));
+
+		LOG.info("Median latency of a wait: {} ms polling every 500 ms, {} ms with backoff {} ms.", before, after,
+				Waits.DEFAULT_BACKOFF);
+		assertTrue(after < before, "backoff " + after + " ms, fixed " + before + " ms");
+	}
+
+	private static long medianLatencyMillis(long minPollMillis, long maxPollMillis)
+	{
+		long[] latencies = new long[DELAYS_MILLIS.length];
+		for (int i = 0; i < DELAYS_MILLIS.length; i++)
+		{
+			long holdsFrom = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DELAYS_MILLIS[i]);
+			new AdaptiveWait<>(holdsFrom, 10, TimeUnit.SECONDS, minPollMillis, maxPollMillis)
+					.until(from -> System.nanoTime() >= from);
+			latencies[i] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - holdsFrom);
+		}
+		Arrays.sort(latencies);
+		return latencies[latencies.length / 2];
+	}
+}
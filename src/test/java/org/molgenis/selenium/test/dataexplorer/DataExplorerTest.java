@@ -1,57 +1,35 @@
 package org.molgenis.selenium.test.dataexplorer;
 
-import static org.molgenis.selenium.model.importer.ImporterModel.EntitiesOptions.ADD;
+import static java.util.stream.Collectors.toList;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
-import java.io.File;
+import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.molgenis.JenkinsConfig;
-import org.molgenis.selenium.model.HomepageModel;
 import org.molgenis.selenium.model.dataexplorer.DataExplorerModel;
-import org.molgenis.selenium.model.importer.ImporterModel;
 import org.molgenis.selenium.test.AbstractSeleniumTest;
 import org.molgenis.selenium.test.Config;
+import org.molgenis.selenium.test.fixture.Fixture;
+import org.molgenis.selenium.test.fixture.UsesFixtures;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.ContextConfiguration;
-import org.testng.annotations.AfterClass;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 @ContextConfiguration(classes =
 { JenkinsConfig.class, Config.class })
+@UsesFixtures(Fixture.ALL_DATATYPES)
 public class DataExplorerTest extends AbstractSeleniumTest
 {
 	private static final Logger LOG = LoggerFactory.getLogger(DataExplorerTest.class);
 	private DataExplorerModel model;
 
-	@BeforeClass
-	public void beforeClass() throws InterruptedException
-	{
-		token = restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("org_molgenis_test_TypeTest", "TypeTestRef", "Person", "Location");
-		restClient.logout(token);
-		File emxAllDatatypes = ImporterModel.getFile("org/molgenis/selenium/emx/xlsx/emx_all_datatypes.xlsx");
-		driver.get(baseURL);
-		HomepageModel homePage = PageFactory.initElements(driver, HomepageModel.class);
-		homePage.menu().openSignInDialog().signIn(uid, pwd).menu().selectImporter().importFile(emxAllDatatypes, ADD)
-				.finish().menu().signOut();
-	}
-
-	@AfterClass
-	public void afterClass()
-	{
-		token = restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("org_molgenis_test_TypeTest", "TypeTestRef", "Person", "Location");
-		restClient.logout(token);
-	}
-
 	@BeforeMethod
 	public void beforeMethod() throws InterruptedException
 	{
@@ -81,6 +59,19 @@ public class DataExplorerTest extends AbstractSeleniumTest
 		assertTrue(driver.getCurrentUrl().endsWith("dataexplorer?entity=org_molgenis_test_TypeTest#"));
 	}
 
+	@Test
+	public void streamTableData()
+	{
+		LOG.info("Test data explorer, stream all pages of TypeTest...");
+		driver.get(baseURL + "/menu/main/dataexplorer?entity=org_molgenis_test_TypeTest");
+		new WebDriverWait(driver, 2).pollingEvery(100, TimeUnit.MILLISECONDS).until(this::entityTypeTestIsSelected);
+		model.spinner().waitTillDone(10, TimeUnit.SECONDS);
+
+		List<List<String>> rows = model.streamTableData().collect(toList());
+		assertEquals(rows.size(), 38);
+		assertEquals(new HashSet<>(rows).size(), rows.size(), "a page was read twice");
+	}
+
 	private boolean entityTypeTestIsSelected(WebDriver d)
 	{
 		return "TypeTest".equals(model.getSelectedEntityTitle());
@@ -20,12 +20,13 @@ import org.molgenis.selenium.model.dataexplorer.DataExplorerModel;
 import org.molgenis.selenium.model.dataexplorer.DataExplorerModel.DeleteOption;
 import org.molgenis.selenium.model.dataexplorer.annotators.AnnotatorModel;
 import org.molgenis.selenium.test.AbstractSeleniumTest;
+import org.molgenis.selenium.test.fixture.Fixture;
+import org.molgenis.selenium.test.fixture.UsesFixtures;
 import org.molgenis.selenium.test.Config;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.ContextConfiguration;
 import org.testng.Assert;
-import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -34,6 +35,8 @@ import com.google.common.collect.Maps;
 
 @ContextConfiguration(classes =
 { JenkinsConfig.class, Config.class })
+@UsesFixtures(value =
+{ Fixture.ANNOTATOR_TEST, Fixture.CORNER_CASES_VCF }, modifies = Fixture.CORNER_CASES_VCF)
 public class AnnotatorTest extends AbstractSeleniumTest
 {
 	private static final List<List<String>> VCF_CGD_ANNOTATION = asList(
@@ -143,20 +146,8 @@ public class AnnotatorTest extends AbstractSeleniumTest
 	@BeforeClass
 	public void beforeClass() throws InterruptedException
 	{
-		token = restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("AnnotatorTestSelenium", "VcfSelenium", "VcfSelenium_Sample");
-		new SettingsModel(restClient, token).updateDataExplorerSettings("mod_annotators", true);
-		restClient.logout(token);
-		importEMXFiles("annotator_test.xlsx");
-		importVcf("corner_cases.vcf", "VcfSelenium");
-	}
-
-	@AfterClass
-	public void afterClass()
-	{
-		token = restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("AnnotatorTestSelenium", "VcfSelenium", "VcfSelenium_Sample");
-		restClient.logout(token);
+		tokenManager.run(uid, pwd,
+				token -> new SettingsModel(restClient, token).updateDataExplorerSettings("mod_annotators", true));
 	}
 
 	@BeforeMethod
@@ -182,7 +173,7 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		// Copy
 		String entityNameOriginal = "VcfSelenium";
 		String entityName = entityNameOriginal + "_Copy1";
-		restClient.deleteMetadata(token, entityName);
+		tokenManager.run(uid, pwd, token -> restClient.deleteMetadata(token, entityName));
 		model.clickCopy(entityNameOriginal, entityName);
 
 		LOG.info("Test annotation of VCF with all available annotators...");
@@ -248,7 +239,7 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		// Copy
 		String entityNameOriginal = "AnnotatorTestSelenium";
 		String entityName = entityNameOriginal + "_Copy2";
-		restClient.deleteMetadata(token, entityName);
+		tokenManager.run(uid, pwd, token -> restClient.deleteMetadata(token, entityName));
 		model.clickCopy(entityNameOriginal, entityName);
 
 		LOG.info("Test annotation with all available annotators...");
@@ -314,7 +305,7 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		// Copy
 		String entityNameOriginal = "VcfSelenium";
 		String entityName = entityNameOriginal + "_Copy3";
-		restClient.deleteMetadata(token, entityName);
+		tokenManager.run(uid, pwd, token -> restClient.deleteMetadata(token, entityName));
 		model.clickCopy(entityNameOriginal, entityName);
 
 		LOG.info("Test annotation of VCF file with SnpEff and then HPO and CGD");
@@ -341,7 +332,7 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		// Copy
 		String entityNameOriginal = "AnnotatorTestSelenium";
 		String entityName = entityNameOriginal + "_Copy4";
-		restClient.deleteMetadata(token, entityName);
+		tokenManager.run(uid, pwd, token -> restClient.deleteMetadata(token, entityName));
 		model.clickCopy(entityNameOriginal, entityName);
 
 		LOG.info("Test annotation of EMX file with SnpEff and then HPO and CGD");
@@ -376,7 +367,7 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		// Copy
 		String entityNameOriginal = "AnnotatorTestSelenium";
 		String entityName = entityNameOriginal + "_Copy5";
-		restClient.deleteMetadata(token, entityName);
+		tokenManager.run(uid, pwd, token -> restClient.deleteMetadata(token, entityName));
 		model.clickCopy(entityNameOriginal, entityName);
 
 		LOG.info("Test annotating EMX with CADD twice, using copy ...");
@@ -385,19 +376,22 @@ public class AnnotatorTest extends AbstractSeleniumTest
 				.selectAnnotatorTab()
 				.select("cadd").clickAnnotateButtonAndWait(60);
 		
-		entityName = dataExplorerModel.getEntityNameFromURL().get();
-		Assert.assertEquals(restClient.getMeta(token, entityName).getBody().getAttributes().keySet(),
+		String annotatedEntityName = dataExplorerModel.getEntityNameFromURL().get();
+		Assert.assertEquals(tokenManager.call(uid, pwd, token -> restClient.getMeta(token, annotatedEntityName))
+				.getBody().getAttributes().keySet(),
 				of("ID", "#CHROM", "POS", "REF", "ALT", "Comment", "MOLGENIS_cadd"));
 
-		Map<String, Object> entity = Maps.newHashMap(restClient.get(token, entityName, "1"));
+		Map<String, Object> entity = Maps
+				.newHashMap(tokenManager.call(uid, pwd, token -> restClient.get(token, annotatedEntityName, "1")));
 		entity.put("CADDABS", 0);
 		entity.put("CADDSCALED", 0);
-		restClient.update(token, entityName, "1", copyOf(entity));
+		tokenManager.run(uid, pwd, token -> restClient.update(token, annotatedEntityName, "1", copyOf(entity)));
 
 		LOG.info("Going twice..");
 		dataExplorerModel.selectAnnotatorTab().select("cadd").clickAnnotateButtonAndWait(60).deselectAll()
 				.clickAttribute("ID").clickAttribute("cadd").spinner().waitTillDone(1, TimeUnit.SECONDS);
-		Assert.assertEquals(restClient.getMeta(token, entityName).getBody().getAttributes().keySet(),
+		Assert.assertEquals(tokenManager.call(uid, pwd, token -> restClient.getMeta(token, annotatedEntityName))
+				.getBody().getAttributes().keySet(),
 				of("ID", "#CHROM", "POS", "REF", "ALT", "Comment", "MOLGENIS_cadd"));
 
 		List<List<String>> tableData = dataExplorerModel.getTableData();
@@ -405,7 +399,7 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		compareTableData(tableData, asList(asList("2", "", ""), asList("3", "", ""), asList("4", "", ""),
 				asList("1", "-0.667351", "1.08")));
 
-		restClient.deleteMetadata(token, entityName);
+		tokenManager.run(uid, pwd, token -> restClient.deleteMetadata(token, annotatedEntityName));
 	}
 
 	//@Test(priority = 10)
@@ -433,11 +427,13 @@ public class AnnotatorTest extends AbstractSeleniumTest
 		compareTableData(tableData, VCF_EXAC_ANNOTATION);
 
 		LOG.info("Clear snpEff scores in first row...");
-		Map<String, Object> entity = restClient.get(token, "VcfSelenium").getItems().get(0);
+		Map<String, Object> entity = tokenManager.call(uid, pwd, token -> restClient.get(token, "VcfSelenium"))
+				.getItems().get(0);
 		entity.put("Gene_ID", "");
 		entity.put("SAMPLES_ENTITIES", emptyList()); // easiest update
 		LOG.info("entity: {}", entity);
-		restClient.update(token, "VCFSelenium", entity.get("INTERNAL_ID").toString(), copyOf(entity));
+		tokenManager.run(uid, pwd,
+				token -> restClient.update(token, "VCFSelenium", entity.get("INTERNAL_ID").toString(), copyOf(entity)));
 
 		LOG.info("Reannotate with snpEff...");
 		dataExplorerModel.selectAnnotatorTab().select("snpEff").clickAnnotateButtonAndWait(600);
@@ -0,0 +1,81 @@
+package org.molgenis.selenium.test.fixture;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+
+import java.util.List;
+
+/**
+ * Data the tests import. Test classes declare the fixtures they need with {@link UsesFixtures}.
+ */
+public enum Fixture
+{
+	ALL_DATATYPES(asList("org/molgenis/selenium/emx/xlsx/emx_all_datatypes.xlsx"),
+			asList("org_molgenis_test_TypeTest", "TypeTestRef", "Location", "Person"), emptyList(), null),
+
+	MAPPING_SERVICE(asList("org/molgenis/selenium/mappingservice/mappingservice-test.xlsx"),
+			asList("HOP_selenium", "HOP_GENDER_Ref_selenium", "FOOD_POTATOES_Ref_selenium", "DIS_HBP_Ref_selenium",
+					"lifelines_test", "test_GENDER_Ref_test", "test_NUCHTER1_Ref_test", "test_FOOD59A1_Ref_test",
+					"test_HEALTH351_Ref_test", "prevend_test", "test_SEX_Ref_test"),
+			emptyList(), null),
+
+	ONTOLOGIES(
+			asList("org/molgenis/selenium/mappingservice/biobank_ontology_test.owl.zip",
+					"org/molgenis/selenium/mappingservice/uo_test.owl.zip"),
+			emptyList(), asList("Ontology_OntologyTerm", "Ontology_OntologyTermDynamicAnnotation",
+					"Ontology_OntologyTermNodePath", "Ontology_OntologyTermSynonym", "Ontology_Ontology"),
+			null),
+
+	MAGMA_SCRIPTS(asList("org/molgenis/selenium/mappingservice/test-javascript_magma.xls"), emptyList(),
+			asList("Script", "ScriptParameter"), null),
+
+	ANNOTATOR_TEST(asList("annotator_test.xlsx"), asList("AnnotatorTestSelenium"), emptyList(), null),
+
+	CORNER_CASES_VCF(asList("corner_cases.vcf"), asList("VcfSelenium", "VcfSelenium_Sample"), emptyList(),
+			"VcfSelenium");
+
+	private final List<String> files;
+	private final List<String> entities;
+	private final List<String> dataEntities;
+	private final String vcfEntityName;
+
+	private Fixture(List<String> files, List<String> entities, List<String> dataEntities, String vcfEntityName)
+	{
+		this.files = files;
+		this.entities = entities;
+		this.dataEntities = dataEntities;
+		this.vcfEntityName = vcfEntityName;
+	}
+
+	/**
+	 * Returns the paths of the files to import, relative to the classpath. The files do not depend on each other.
+	 */
+	public List<String> getFiles()
+	{
+		return files;
+	}
+
+	/**
+	 * Returns the entities the files create, in the order to delete them.
+	 */
+	public List<String> getEntities()
+	{
+		return entities;
+	}
+
+	/**
+	 * Returns the existing entities the files add rows to, whose rows are deleted to unload the fixture.
+	 */
+	public List<String> getDataEntities()
+	{
+		return dataEntities;
+	}
+
+	/**
+	 * Returns the name of the entity the VCF file of this fixture is imported into, or null if it has no VCF file.
+	 */
+	public String getVcfEntityName()
+	{
+		return vcfEntityName;
+	}
+}
@@ -0,0 +1,41 @@
+package org.molgenis.selenium.test.fixture;
+
+import static java.util.Comparator.comparing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+/**
+ * Orders the test classes so that classes sharing fixtures run one after another, those that only read them first.
+ * TestNG creates its own instance of this listener, so it keeps no state; the fixtures are held by the
+ * {@link FixtureScheduler} the test classes share.
+ */
+public class FixtureOrderInterceptor implements IMethodInterceptor
+{
+	/**
+	 * Runs the classes without fixtures first, then groups the classes by their first fixture, those that do not
+	 * modify it first. Keeps the order of the methods within a class.
+	 */
+	@Override
+	public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context)
+	{
+		List<IMethodInstance> ordered = new ArrayList<>(methods);
+		ordered.sort(comparing((IMethodInstance method) -> getSortKey(method.getMethod().getRealClass())));
+		return ordered;
+	}
+
+	private static String getSortKey(Class<?> testClass)
+	{
+		List<Fixture> fixtures = FixtureScheduler.getFixtures(testClass);
+		if (fixtures.isEmpty())
+		{
+			return "0 " + testClass.getName();
+		}
+		return String.format("1 %02d %b %s", fixtures.get(0).ordinal(),
+				!FixtureScheduler.getModifiedFixtures(testClass).isEmpty(), testClass.getName());
+	}
+}
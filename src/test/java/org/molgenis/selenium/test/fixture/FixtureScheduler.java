@@ -0,0 +1,272 @@
+package org.molgenis.selenium.test.fixture;
+
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+/**
+ * Loads every fixture once for all test classes of the suite that declare it with {@link UsesFixtures}, and unloads it
+ * after the last of them finished. A class that modifies a fixture holds it alone: it waits until the classes reading
+ * the fixture released it, classes that want to read it wait until it finished, and it unloads the fixture when it
+ * finishes, so that the next class imports it again. A fixture is never unloaded while a class holds it. Classes that
+ * need different fixtures load them at the same time; a class that needs a fixture another class is loading waits for
+ * it. Classes take their fixtures in the order of {@link Fixture}, so that they cannot wait for each other in a circle.
+ *
+ * The order in which the classes run comes from the {@link FixtureOrderInterceptor}, a separate listener without state.
+ * The test classes share a single scheduler.
+ */
+public class FixtureScheduler
+{
+	private static final Logger LOG = LoggerFactory.getLogger(FixtureScheduler.class);
+
+	private final Map<Fixture, Integer> users = new EnumMap<>(Fixture.class);
+	private final Map<Fixture, CompletableFuture<Void>> loads = new EnumMap<>(Fixture.class);
+	private final Map<Fixture, Integer> holders = new EnumMap<>(Fixture.class);
+	private final Set<Fixture> exclusive = EnumSet.noneOf(Fixture.class);
+
+	/**
+	 * Counts the test classes of the suite that use each fixture.
+	 */
+	public void plan(ITestContext context)
+	{
+		plan(Arrays.stream(context.getAllTestMethods()).<Class<?>> map(ITestNGMethod::getRealClass).distinct()
+				.collect(toList()));
+	}
+
+	/**
+	 * Counts the given test classes that use each fixture.
+	 */
+	synchronized void plan(Collection<Class<?>> testClasses)
+	{
+		users.clear();
+		testClasses.stream().map(FixtureScheduler::getFixtures).flatMap(Collection::stream)
+				.forEach(fixture -> users.merge(fixture, 1, Integer::sum));
+		LOG.info("Fixtures and the number of test classes that use them: {}", users);
+	}
+
+	/**
+	 * Loads the fixtures the class declares unless they are loaded already. Blocks until all of them are loaded and the
+	 * class may use them: until no other class holds the fixtures it modifies, and until no other class modifies the
+	 * fixtures it reads. If this fails, the class gives up the fixtures and no longer counts as a class that needs
+	 * them.
+	 */
+	public void acquire(Class<?> testClass, Consumer<Fixture> loader)
+	{
+		List<Fixture> modified = getModifiedFixtures(testClass);
+		List<Fixture> held = new ArrayList<>();
+		boolean acquired = false;
+		try
+		{
+			for (Fixture fixture : getFixtures(testClass).stream().sorted().collect(toList()))
+			{
+				CompletableFuture<Void> load;
+				boolean loadHere = false;
+				synchronized (this)
+				{
+					hold(fixture, modified.contains(fixture));
+					held.add(fixture);
+					if (!getLoadedFixtures(testClass).contains(fixture))
+					{
+						// the class only needs the fixture to itself, it imports the data on its own
+						continue;
+					}
+					load = loads.get(fixture);
+					if (load == null || load.isCompletedExceptionally())
+					{
+						load = new CompletableFuture<>();
+						loads.put(fixture, load);
+						loadHere = true;
+					}
+				}
+				if (loadHere)
+				{
+					try
+					{
+						loader.accept(fixture);
+						load.complete(null);
+					}
+					catch (RuntimeException ex)
+					{
+						load.completeExceptionally(ex);
+						throw ex;
+					}
+				}
+				else
+				{
+					LOG.info("Wait for fixture {}...", fixture);
+					try
+					{
+						load.join();
+					}
+					catch (CompletionException ex)
+					{
+						throw new IllegalStateException("Fixture " + fixture + " failed to load", ex.getCause());
+					}
+				}
+			}
+			acquired = true;
+		}
+		finally
+		{
+			if (!acquired)
+			{
+				abandon(testClass, held);
+			}
+		}
+	}
+
+	/**
+	 * Gives up the fixtures of a class that failed to acquire them. The class will not run and will not release them,
+	 * so it must not keep other classes waiting, nor keep its fixtures loaded after the last class that does run.
+	 */
+	private synchronized void abandon(Class<?> testClass, List<Fixture> held)
+	{
+		held.forEach(this::unhold);
+		getFixtures(testClass).forEach(fixture -> users.computeIfPresent(fixture, (key, count) -> count - 1));
+		notifyAll();
+	}
+
+	/**
+	 * Waits until the class may hold the fixture and takes it. Call while synchronized on the scheduler.
+	 *
+	 * @param alone
+	 *            whether the class modifies the fixture and so must be its only holder
+	 */
+	private void hold(Fixture fixture, boolean alone)
+	{
+		boolean logged = false;
+		while (exclusive.contains(fixture) || alone && holders.getOrDefault(fixture, 0) > 0)
+		{
+			if (!logged)
+			{
+				LOG.info("Wait for other test classes to release fixture {}...", fixture);
+				logged = true;
+			}
+			try
+			{
+				wait();
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while waiting for fixture " + fixture, e);
+			}
+		}
+		holders.merge(fixture, 1, Integer::sum);
+		if (alone)
+		{
+			exclusive.add(fixture);
+		}
+	}
+
+	/**
+	 * Gives up a hold on the fixture and returns the number of classes that still hold it. Call while synchronized on
+	 * the scheduler.
+	 */
+	private int unhold(Fixture fixture)
+	{
+		Integer holding = holders.computeIfPresent(fixture, (key, count) -> count > 1 ? count - 1 : null);
+		if (holding == null)
+		{
+			exclusive.remove(fixture);
+			return 0;
+		}
+		return holding;
+	}
+
+	/**
+	 * Unloads the fixtures of the class that no other class needs any more, and the fixtures it modified. Other
+	 * classes cannot hold a fixture this class modified, and wait until it is unloaded.
+	 *
+	 * @param unloader
+	 *            gets the fixture and whether it was modified
+	 */
+	public void release(Class<?> testClass, BiConsumer<Fixture, Boolean> unloader)
+	{
+		List<Fixture> modified = getModifiedFixtures(testClass);
+		for (Fixture fixture : getFixtures(testClass))
+		{
+			int remaining;
+			synchronized (this)
+			{
+				// a class missing from the plan is its fixture's only user
+				remaining = users.containsKey(fixture) ? users.merge(fixture, -1, Integer::sum) : 0;
+				boolean unload = modified.contains(fixture) || remaining <= 0;
+				if (unhold(fixture) > 0 || !unload)
+				{
+					notifyAll();
+					continue;
+				}
+				// keep other classes out until the fixture is gone
+				exclusive.add(fixture);
+				loads.remove(fixture);
+			}
+			LOG.info("Unload fixture {}, {} classes still need it...", fixture, Math.max(remaining, 0));
+			try
+			{
+				unloader.accept(fixture, modified.contains(fixture));
+			}
+			finally
+			{
+				synchronized (this)
+				{
+					exclusive.remove(fixture);
+					notifyAll();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Unloads the fixtures that are still loaded, because classes that use them did not run.
+	 */
+	public void releaseAll(BiConsumer<Fixture, Boolean> unloader)
+	{
+		List<Fixture> loaded;
+		synchronized (this)
+		{
+			loaded = new ArrayList<>(loads.keySet());
+			loads.clear();
+		}
+		loaded.forEach(fixture -> unloader.accept(fixture, false));
+	}
+
+	/**
+	 * Returns the fixtures the class loads or modifies.
+	 */
+	public static List<Fixture> getFixtures(Class<?> testClass)
+	{
+		return Stream.concat(getLoadedFixtures(testClass).stream(), getModifiedFixtures(testClass).stream()).distinct()
+				.collect(toList());
+	}
+
+	private static List<Fixture> getLoadedFixtures(Class<?> testClass)
+	{
+		UsesFixtures declaration = testClass.getAnnotation(UsesFixtures.class);
+		return declaration == null ? Collections.emptyList() : Arrays.asList(declaration.value());
+	}
+
+	static List<Fixture> getModifiedFixtures(Class<?> testClass)
+	{
+		UsesFixtures declaration = testClass.getAnnotation(UsesFixtures.class);
+		return declaration == null ? Collections.emptyList() : Arrays.asList(declaration.modifies());
+	}
+}
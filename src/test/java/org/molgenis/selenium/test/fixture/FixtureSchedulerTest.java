@@ -0,0 +1,113 @@
+package org.molgenis.selenium.test.fixture;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class FixtureSchedulerTest
+{
+	@UsesFixtures(Fixture.ALL_DATATYPES)
+	private static class Reader
+	{
+	}
+
+	@UsesFixtures(Fixture.ALL_DATATYPES)
+	private static class OtherReader
+	{
+	}
+
+	@UsesFixtures(value = Fixture.ALL_DATATYPES, modifies = Fixture.ALL_DATATYPES)
+	private static class Modifier
+	{
+	}
+
+	private FixtureScheduler scheduler;
+	private AtomicInteger loads;
+	private List<Fixture> unloads;
+
+	@BeforeMethod
+	public void setUp()
+	{
+		scheduler = new FixtureScheduler();
+		loads = new AtomicInteger();
+		unloads = new CopyOnWriteArrayList<>();
+	}
+
+	@Test
+	public void testReadersShareFixture() throws Exception
+	{
+		scheduler.plan(asList(Reader.class, OtherReader.class));
+		scheduler.acquire(Reader.class, fixture -> loads.incrementAndGet());
+		acquireAsync(OtherReader.class).get(5, SECONDS);
+		assertEquals(loads.get(), 1);
+
+		scheduler.release(Reader.class, (fixture, modified) -> unloads.add(fixture));
+		assertEquals(unloads, emptyList());
+		scheduler.release(OtherReader.class, (fixture, modified) -> unloads.add(fixture));
+		assertEquals(unloads, asList(Fixture.ALL_DATATYPES));
+	}
+
+	@Test
+	public void testModifierBlocksReaders() throws Exception
+	{
+		scheduler.plan(asList(Reader.class, Modifier.class));
+		scheduler.acquire(Modifier.class, fixture -> loads.incrementAndGet());
+		CompletableFuture<Void> reader = acquireAsync(Reader.class);
+		try
+		{
+			reader.get(200, MILLISECONDS);
+			fail("Reader acquired a fixture that is being modified");
+		}
+		catch (TimeoutException expected)
+		{
+			// still waiting
+		}
+
+		scheduler.release(Modifier.class, (fixture, modified) -> unloads.add(fixture));
+		reader.get(5, SECONDS);
+		assertEquals(unloads, asList(Fixture.ALL_DATATYPES));
+		assertEquals(loads.get(), 2);
+	}
+
+	@Test
+	public void testFailedAcquireReleasesFixture() throws Exception
+	{
+		scheduler.plan(asList(Reader.class, OtherReader.class));
+		try
+		{
+			scheduler.acquire(Reader.class, fixture -> {
+				throw new IllegalStateException("Import failed");
+			});
+			fail("Expected the load to fail");
+		}
+		catch (IllegalStateException expected)
+		{
+			assertEquals(expected.getMessage(), "Import failed");
+		}
+
+		acquireAsync(OtherReader.class).get(5, SECONDS);
+		assertEquals(loads.get(), 1);
+		scheduler.release(OtherReader.class, (fixture, modified) -> unloads.add(fixture));
+		assertEquals(unloads, asList(Fixture.ALL_DATATYPES));
+
+		// no hold of the failed class is left to keep a modifier out
+		acquireAsync(Modifier.class).get(5, SECONDS);
+	}
+
+	private CompletableFuture<Void> acquireAsync(Class<?> testClass)
+	{
+		return CompletableFuture.runAsync(() -> scheduler.acquire(testClass, fixture -> loads.incrementAndGet()));
+	}
+}
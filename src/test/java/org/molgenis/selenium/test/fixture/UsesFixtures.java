@@ -0,0 +1,27 @@
+package org.molgenis.selenium.test.fixture;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the fixtures the tests of a class need. The {@link FixtureScheduler} loads them before the class starts.
+ */
+@Retention(RUNTIME)
+@Target(TYPE)
+public @interface UsesFixtures
+{
+	/**
+	 * The fixtures to load before the class starts.
+	 */
+	Fixture[] value() default {};
+
+	/**
+	 * The fixtures whose data the tests change, so that classes after them need a fresh import. The class gets them to
+	 * itself while it runs. A fixture listed here but not in {@link #value()} is not loaded, for classes that import
+	 * its files on their own.
+	 */
+	Fixture[] modifies() default {};
+}
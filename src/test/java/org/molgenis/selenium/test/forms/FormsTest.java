@@ -14,18 +14,20 @@ import org.molgenis.selenium.model.dataexplorer.data.DataModel;
 import org.molgenis.selenium.model.forms.FormsModalModel;
 import org.molgenis.selenium.model.forms.FormsUtils;
 import org.molgenis.selenium.test.AbstractSeleniumTest;
+import org.molgenis.selenium.test.fixture.Fixture;
+import org.molgenis.selenium.test.fixture.UsesFixtures;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 
+@UsesFixtures(value = Fixture.ALL_DATATYPES, modifies = Fixture.ALL_DATATYPES)
 public class FormsTest extends AbstractSeleniumTest
 {
 	private static final Logger LOG = LoggerFactory.getLogger(FormsTest.class);
@@ -65,11 +67,8 @@ public class FormsTest extends AbstractSeleniumTest
 	@BeforeClass
 	public void beforeClass() throws InterruptedException
 	{
-		super.token = super.restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("org_molgenis_test_TypeTest", "TypeTestRef", "Location", "Person");
-		new SettingsModel(super.restClient, super.token).updateDataExplorerSettings("mod_data", true);
-		super.restClient.logout(token);
-		super.importEMXFiles("org/molgenis/selenium/emx/xlsx/emx_all_datatypes.xlsx");
+		tokenManager.run(uid, pwd,
+				token -> new SettingsModel(super.restClient, token).updateDataExplorerSettings("mod_data", true));
 	}
 
 	/**
@@ -347,12 +346,4 @@ public class FormsTest extends AbstractSeleniumTest
 		model.clickOnSaveChangesButton();
 		LOG.info("Test select all checkboxes xcategoricalmref_value");
 	}
-
-	@AfterClass
-	public void afterClass() throws InterruptedException
-	{
-		super.token = super.restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("org_molgenis_test_TypeTest", "TypeTestRef", "Location", "Person");
-		super.restClient.logout(token);
-	}
 }
@@ -6,12 +6,18 @@ import java.io.IOException;
 import org.molgenis.selenium.model.importer.ImporterModel;
 import org.molgenis.selenium.model.importer.ImporterModel.EntitiesOptions;
 import org.molgenis.selenium.test.AbstractSeleniumTest;
+import org.molgenis.selenium.test.Budget;
+import org.molgenis.selenium.test.fixture.Fixture;
+import org.molgenis.selenium.test.fixture.UsesFixtures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+// every import may take up to five minutes
+@Budget(900)
+@UsesFixtures(modifies = Fixture.ALL_DATATYPES)
 public class ImporterTest extends AbstractSeleniumTest
 {
 	private static final Logger LOG = LoggerFactory.getLogger(ImporterTest.class);
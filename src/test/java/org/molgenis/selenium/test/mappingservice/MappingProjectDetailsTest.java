@@ -10,10 +10,11 @@ import org.molgenis.selenium.model.mappingservice.AlgorithmEditorModel;
 import org.molgenis.selenium.model.mappingservice.MappingProjectDetailsModel;
 import org.molgenis.selenium.test.AbstractSeleniumTest;
 import org.molgenis.selenium.test.Config;
+import org.molgenis.selenium.test.fixture.Fixture;
+import org.molgenis.selenium.test.fixture.UsesFixtures;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.context.ContextConfiguration;
-import org.testng.annotations.AfterClass;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
@@ -21,6 +22,8 @@ import org.testng.annotations.Test;
 
 @ContextConfiguration(classes =
 { JenkinsConfig.class, Config.class })
+@UsesFixtures(value =
+{ Fixture.MAPPING_SERVICE, Fixture.ONTOLOGIES, Fixture.MAGMA_SCRIPTS }, modifies = Fixture.MAPPING_SERVICE)
 public class MappingProjectDetailsTest extends AbstractSeleniumTest
 {
 	private static final Logger LOG = LoggerFactory.getLogger(MappingProjectDetailsTest.class);
@@ -29,35 +32,11 @@ public class MappingProjectDetailsTest extends AbstractSeleniumTest
 	@BeforeClass
 	public void beforeClass()
 	{
-		token = restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("HOP_selenium", "HOP_GENDER_Ref_selenium", "FOOD_POTATOES_Ref_selenium",
-				"DIS_HBP_Ref_selenium", "lifelines_test", "test_GENDER_Ref_test", "test_NUCHTER1_Ref_test",
-				"test_FOOD59A1_Ref_test", "test_HEALTH351_Ref_test", "prevend_test", "test_SEX_Ref_test");
-		tryDeleteData("Ontology_OntologyTerm", "Ontology_OntologyTermDynamicAnnotation",
-				"Ontology_OntologyTermNodePath", "Ontology_OntologyTermSynonym", "Ontology_Ontology", "Script",
-				"ScriptParameter");
-		restClient.logout(token);
-		importEMXFiles("org/molgenis/selenium/mappingservice/mappingservice-test.xlsx",
-				"org/molgenis/selenium/mappingservice/biobank_ontology_test.owl.zip",
-				"org/molgenis/selenium/mappingservice/uo_test.owl.zip",
-				"org/molgenis/selenium/mappingservice/test-javascript_magma.xls");
-		homepage.menu().openSignInDialog().signIn(uid, pwd).menu().selectTagWizard().selectEntity("HOP_selenium")
+		signIn().menu().selectTagWizard().selectEntity("HOP_selenium")
 				.tagAttributeWithTerms("Body_Mass_Index", "Height", "Weight")
 				.tagAttributeWithTerms("Body_Mass_Index_1", "Height", "Weight")
-				.tagAttributeWithTerms("Body_Mass_Index_2", "Height", "Weight").menu().signOut();
-	}
-
-	@AfterClass
-	public void afterClass()
-	{
-		token = restClient.login(uid, pwd).getToken();
-		tryDeleteEntities("HOP_selenium", "HOP_GENDER_Ref_selenium", "FOOD_POTATOES_Ref_selenium",
-				"DIS_HBP_Ref_selenium", "lifelines_test", "test_GENDER_Ref_test", "test_NUCHTER1_Ref_test",
-				"test_FOOD59A1_Ref_test", "test_HEALTH351_Ref_test", "prevend_test", "test_SEX_Ref_test");
-		tryDeleteData("Ontology_OntologyTerm", "Ontology_OntologyTermDynamicAnnotation",
-				"Ontology_OntologyTermNodePath", "Ontology_OntologyTermSynonym", "Ontology_Ontology", "Script",
-				"ScriptParameter");
-		restClient.logout(token);
+				.tagAttributeWithTerms("Body_Mass_Index_2", "Height", "Weight");
+		signOut();
 	}
 
 	@BeforeMethod
@@ -0,0 +1,390 @@
+package org.molgenis.selenium.test.table;
+
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.toList;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Compares two tables as multisets of rows, matching the rows on their key columns. Both tables are read as streams, in
+ * turns. A row is kept only until a row with the same key arrives from the other table, so memory grows with how
+ * differently the tables are ordered and with the number of differences, not with the size of the tables.
+ *
+ * Rows with the same key are matched to rows that are equal to them first. The rows that are left are paired in the
+ * order they came in and reported as changed cells; the rest is reported as missing or extra.
+ */
+public class TableDiff
+{
+	/**
+	 * Equal strings, or numbers within a relative tolerance of one millionth. How cells without a column comparison are
+	 * compared.
+	 */
+	public static final BiPredicate<String, String> EXACT_OR_NUMERIC = exactOr(numeric(1e-6, 0));
+
+	private int[] keyColumns = { 0 };
+	private final Map<Integer, BiPredicate<String, String>> comparisons = new HashMap<>();
+	private BiPredicate<String, String> defaultComparison = EXACT_OR_NUMERIC;
+	private int maxEntries = 20;
+
+	/**
+	 * The columns that identify a row, column 0 by default. Rows need not be unique on them.
+	 */
+	public TableDiff keyColumns(int... columns)
+	{
+		this.keyColumns = columns.clone();
+		return this;
+	}
+
+	/**
+	 * How the cells of a column are compared, as (expected, actual). Null cells are only equal to null cells.
+	 */
+	public TableDiff column(int column, BiPredicate<String, String> comparison)
+	{
+		comparisons.put(column, requireNonNull(comparison));
+		return this;
+	}
+
+	/**
+	 * How the cells of the other columns are compared, {@link #EXACT_OR_NUMERIC} by default.
+	 */
+	public TableDiff defaultComparison(BiPredicate<String, String> comparison)
+	{
+		this.defaultComparison = requireNonNull(comparison);
+		return this;
+	}
+
+	/**
+	 * The number of differences the report lists, 20 by default. Differences beyond that are only counted.
+	 */
+	public TableDiff maxEntries(int maxEntries)
+	{
+		this.maxEntries = maxEntries;
+		return this;
+	}
+
+	public static BiPredicate<String, String> exact()
+	{
+		return String::equals;
+	}
+
+	/**
+	 * Numbers that differ at most the larger of the absolute tolerance and the relative tolerance times the larger of
+	 * the two. Cells that are not numbers do not match.
+	 */
+	public static BiPredicate<String, String> numeric(double relativeTolerance, double absoluteTolerance)
+	{
+		return (expected, actual) -> {
+			try
+			{
+				double e = Double.parseDouble(expected);
+				double a = Double.parseDouble(actual);
+				double tolerance = Math.max(absoluteTolerance, relativeTolerance * Math.max(Math.abs(e), Math.abs(a)));
+				return Math.abs(e - a) <= tolerance;
+			}
+			catch (NumberFormatException ex)
+			{
+				return false;
+			}
+		};
+	}
+
+	public static BiPredicate<String, String> exactOr(BiPredicate<String, String> comparison)
+	{
+		return (expected, actual) -> expected.equals(actual) || comparison.test(expected, actual);
+	}
+
+	public static BiPredicate<String, String> ignored()
+	{
+		return (expected, actual) -> true;
+	}
+
+	public Report compare(Iterable<List<String>> expected, Iterable<List<String>> actual)
+	{
+		return compare(expected.iterator(), actual.iterator());
+	}
+
+	public Report compare(Iterator<List<String>> expected, Iterator<List<String>> actual)
+	{
+		Report report = new Report(maxEntries);
+		Map<List<String>, Deque<List<String>>> pendingExpected = new LinkedHashMap<>();
+		Map<List<String>, Deque<List<String>>> pendingActual = new LinkedHashMap<>();
+		while (expected.hasNext() || actual.hasNext())
+		{
+			if (expected.hasNext())
+			{
+				offer(expected.next(), true, pendingExpected, pendingActual, report);
+			}
+			if (actual.hasNext())
+			{
+				offer(actual.next(), false, pendingActual, pendingExpected, report);
+			}
+		}
+		pendingExpected.forEach((key, expectedRows) -> {
+			Deque<List<String>> actualRows = pendingActual.remove(key);
+			while (actualRows != null && !actualRows.isEmpty() && !expectedRows.isEmpty())
+			{
+				report.changed(key, expectedRows.poll(), actualRows.poll(), this::getComparison);
+			}
+			expectedRows.forEach(row -> report.missing(key, row));
+			if (actualRows != null)
+			{
+				actualRows.forEach(row -> report.extra(key, row));
+			}
+		});
+		pendingActual.forEach((key, rows) -> rows.forEach(row -> report.extra(key, row)));
+		return report;
+	}
+
+	/**
+	 * Matches the row to an equal row with the same key that came in from the other table, or keeps it until one does.
+	 */
+	private void offer(List<String> row, boolean isExpected, Map<List<String>, Deque<List<String>>> own,
+			Map<List<String>, Deque<List<String>>> other, Report report)
+	{
+		List<String> key = getKey(row);
+		Deque<List<String>> candidates = other.get(key);
+		if (candidates != null)
+		{
+			for (Iterator<List<String>> it = candidates.iterator(); it.hasNext();)
+			{
+				List<String> candidate = it.next();
+				if (isExpected ? matches(row, candidate) : matches(candidate, row))
+				{
+					it.remove();
+					if (candidates.isEmpty())
+					{
+						other.remove(key);
+					}
+					report.equalRows++;
+					return;
+				}
+			}
+		}
+		own.computeIfAbsent(key, k -> new ArrayDeque<>()).add(row);
+	}
+
+	private List<String> getKey(List<String> row)
+	{
+		return Collections.unmodifiableList(
+				IntStream.of(keyColumns).mapToObj(column -> getCell(row, column)).collect(toList()));
+	}
+
+	private boolean matches(List<String> expected, List<String> actual)
+	{
+		int width = Math.max(expected.size(), actual.size());
+		for (int column = 0; column < width; column++)
+		{
+			if (!getComparison(column).test(getCell(expected, column), getCell(actual, column)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The comparison of a column, with null cells only equal to null cells.
+	 */
+	private BiPredicate<String, String> getComparison(int column)
+	{
+		BiPredicate<String, String> comparison = comparisons.getOrDefault(column, defaultComparison);
+		return (expected, actual) -> expected == null || actual == null ? Objects.equals(expected, actual)
+				: comparison.test(expected, actual);
+	}
+
+	private static String getCell(List<String> row, int column)
+	{
+		return column < row.size() ? row.get(column) : null;
+	}
+
+	public enum Kind
+	{
+		MISSING, EXTRA, CHANGED
+	}
+
+	/**
+	 * A missing or extra row, or a cell that changed. Rows that changed have an entry per cell.
+	 */
+	public static class Entry
+	{
+		private final Kind kind;
+		private final List<String> key;
+		private final int column;
+		private final String expected;
+		private final String actual;
+
+		Entry(Kind kind, List<String> key, int column, String expected, String actual)
+		{
+			this.kind = kind;
+			this.key = key;
+			this.column = column;
+			this.expected = expected;
+			this.actual = actual;
+		}
+
+		public Kind getKind()
+		{
+			return kind;
+		}
+
+		public List<String> getKey()
+		{
+			return key;
+		}
+
+		/**
+		 * The column of a changed cell, or -1 for a missing or extra row.
+		 */
+		public int getColumn()
+		{
+			return column;
+		}
+
+		public String getExpected()
+		{
+			return expected;
+		}
+
+		public String getActual()
+		{
+			return actual;
+		}
+
+		@Override
+		public String toString()
+		{
+			switch (kind)
+			{
+				case MISSING:
+					return "missing " + expected;
+				case EXTRA:
+					return "extra " + actual;
+				default:
+					return "changed " + key + " column " + column + ": expected <" + expected + "> but was <" + actual
+							+ ">";
+			}
+		}
+	}
+
+	/**
+	 * The numbers of equal, missing, extra and changed rows, and the first differences.
+	 */
+	public static class Report
+	{
+		private final int maxEntries;
+		private final List<Entry> entries = new ArrayList<>();
+		private int equalRows;
+		private int missingRows;
+		private int extraRows;
+		private int changedRows;
+		private int changedCells;
+
+		Report(int maxEntries)
+		{
+			this.maxEntries = maxEntries;
+		}
+
+		void missing(List<String> key, List<String> row)
+		{
+			missingRows++;
+			add(new Entry(Kind.MISSING, key, -1, String.valueOf(row), null));
+		}
+
+		void extra(List<String> key, List<String> row)
+		{
+			extraRows++;
+			add(new Entry(Kind.EXTRA, key, -1, null, String.valueOf(row)));
+		}
+
+		void changed(List<String> key, List<String> expected, List<String> actual,
+				IntFunction<BiPredicate<String, String>> comparisons)
+		{
+			changedRows++;
+			int width = Math.max(expected.size(), actual.size());
+			for (int column = 0; column < width; column++)
+			{
+				String expectedCell = getCell(expected, column);
+				String actualCell = getCell(actual, column);
+				if (!comparisons.apply(column).test(expectedCell, actualCell))
+				{
+					changedCells++;
+					add(new Entry(Kind.CHANGED, key, column, expectedCell, actualCell));
+				}
+			}
+		}
+
+		private void add(Entry entry)
+		{
+			if (entries.size() < maxEntries)
+			{
+				entries.add(entry);
+			}
+		}
+
+		public boolean isEqual()
+		{
+			return missingRows == 0 && extraRows == 0 && changedRows == 0;
+		}
+
+		/**
+		 * The first differences, at most as many as configured.
+		 */
+		public List<Entry> getEntries()
+		{
+			return Collections.unmodifiableList(entries);
+		}
+
+		public int getEqualRows()
+		{
+			return equalRows;
+		}
+
+		public int getMissingRows()
+		{
+			return missingRows;
+		}
+
+		public int getExtraRows()
+		{
+			return extraRows;
+		}
+
+		public int getChangedRows()
+		{
+			return changedRows;
+		}
+
+		public int getChangedCells()
+		{
+			return changedCells;
+		}
+
+		@Override
+		public String toString()
+		{
+			StringBuilder result = new StringBuilder();
+			result.append(equalRows).append(" rows equal, ").append(missingRows).append(" missing, ")
+					.append(extraRows).append(" extra, ").append(changedRows).append(" changed in ")
+					.append(changedCells).append(" cells.");
+			entries.forEach(entry -> result.append("\n  ").append(entry));
+			int differences = missingRows + extraRows + changedCells;
+			if (differences > entries.size())
+			{
+				result.append("\n  ... and ").append(differences - entries.size()).append(" more");
+			}
+			return result.toString();
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package org.molgenis.selenium.test.table;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.molgenis.selenium.test.table.TableDiff.Entry;
+import org.molgenis.selenium.test.table.TableDiff.Kind;
+import org.molgenis.selenium.test.table.TableDiff.Report;
+import org.testng.annotations.Test;
+
+public class TableDiffTest
+{
+	@Test
+	public void testEqualInOtherOrder()
+	{
+		Report report = new TableDiff().compare(asList(asList("1", "a"), asList("2", "b"), asList("3", "c")),
+				asList(asList("3", "c"), asList("1", "a"), asList("2", "b")));
+		assertTrue(report.isEqual(), report.toString());
+		assertEquals(report.getEqualRows(), 3);
+	}
+
+	@Test
+	public void testDuplicateKeys()
+	{
+		Report report = new TableDiff().compare(asList(asList("1", "a"), asList("1", "b"), asList("1", "b")),
+				asList(asList("1", "b"), asList("1", "a"), asList("1", "c")));
+		assertEquals(report.getEqualRows(), 2);
+		assertEquals(report.getChangedRows(), 1);
+		Entry entry = report.getEntries().get(0);
+		assertEquals(entry.getKind(), Kind.CHANGED);
+		assertEquals(entry.getColumn(), 1);
+		assertEquals(entry.getExpected(), "b");
+		assertEquals(entry.getActual(), "c");
+	}
+
+	@Test
+	public void testMissingAndExtra()
+	{
+		Report report = new TableDiff().keyColumns(0, 1).compare(asList(asList("1", "x", "a"), asList("2", "x", "b")),
+				asList(asList("1", "x", "a"), asList("2", "y", "b")));
+		assertEquals(report.getMissingRows(), 1);
+		assertEquals(report.getExtraRows(), 1);
+		assertEquals(report.getChangedRows(), 0);
+		assertEquals(report.getEntries().get(0).getKind(), Kind.MISSING);
+		assertEquals(report.getEntries().get(1).getKind(), Kind.EXTRA);
+	}
+
+	@Test
+	public void testTolerances()
+	{
+		List<List<String>> expected = asList(asList("1", "0.1234567", "10", "A"), asList("2", null, "12", "b"));
+		List<List<String>> actual = asList(asList("1", "0.12345671", "11", "a"), asList("2", null, "12", "B"));
+		assertFalse(new TableDiff().compare(expected, actual).isEqual());
+		Report report = new TableDiff().column(2, TableDiff.numeric(0, 1)).column(3, String::equalsIgnoreCase)
+				.compare(expected, actual);
+		assertTrue(report.isEqual(), report.toString());
+	}
+
+	@Test
+	public void testNullOnlyEqualsNull()
+	{
+		Report report = new TableDiff().compare(asList(asList("1", null)), asList(asList("1", "")));
+		assertEquals(report.getChangedCells(), 1);
+	}
+
+	@Test
+	public void testReportIsCapped()
+	{
+		Report report = new TableDiff().maxEntries(5).compare(rows(0, 1000, "a"), rows(0, 1000, "b"));
+		assertEquals(report.getChangedRows(), 1000);
+		assertEquals(report.getEntries().size(), 5);
+		assertTrue(report.toString().endsWith("... and 995 more"), report.toString());
+	}
+
+	@Test
+	public void testStreamsLargeTables()
+	{
+		Report report = new TableDiff().compare(rows(0, 100_000, "a"), rows(1, 100_001, "a"));
+		assertEquals(report.getEqualRows(), 99_999);
+		assertEquals(report.getMissingRows(), 1);
+		assertEquals(report.getExtraRows(), 1);
+	}
+
+	private static Iterator<List<String>> rows(int from, int to, String value)
+	{
+		return IntStream.range(from, to).mapToObj(i -> asList(String.valueOf(i), value)).iterator();
+	}
+}